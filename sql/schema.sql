@@ -24,6 +24,8 @@ CREATE TABLE IF NOT EXISTS vehicles (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (dealer_id) REFERENCES dealers(id) ON DELETE CASCADE
 );
+-- Hibernate allocates vehicle ids 50 at a time (pooled optimizer) so inserts can be batched
+ALTER SEQUENCE vehicles_id_seq INCREMENT BY 50;
 
 -- Payments table
 CREATE TABLE IF NOT EXISTS payments (
@@ -33,19 +35,58 @@ CREATE TABLE IF NOT EXISTS payments (
     payment_method VARCHAR(20) NOT NULL CHECK (payment_method IN ('UPI', 'CARD', 'NETBANKING')),
     status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'SUCCESS', 'FAILED')),
     transaction_id VARCHAR(255) UNIQUE,
+    idempotency_key VARCHAR(512),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sweep_lease_until TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (dealer_id) REFERENCES dealers(id) ON DELETE CASCADE
 );
+-- Payment ids are allocated the same way, so bulk initiation can batch its inserts
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+-- Upgrades a payments table created before these columns existed; existing rows start at version 0
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS sweep_lease_until TIMESTAMP;
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(512);
+-- Stored idempotency keys carry the caller's JWT subject in front of the client's key
+ALTER TABLE payments ALTER COLUMN idempotency_key TYPE VARCHAR(512);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payments_idempotency_key ON payments(idempotency_key);
+
+-- Running per-dealer payment totals, maintained by the application alongside every payment write
+CREATE TABLE IF NOT EXISTS payment_summaries (
+    dealer_id BIGINT PRIMARY KEY,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    success_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    pending_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (dealer_id) REFERENCES dealers(id) ON DELETE CASCADE
+);
+
+-- JWTs revoked before expiry, by SHA-256 digest; rows are pruned once the token has expired
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_digest VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
 
 -- Indexes for better performance
 CREATE INDEX idx_dealers_email ON dealers(email);
 CREATE INDEX idx_dealers_subscription_type ON dealers(subscription_type);
 CREATE INDEX idx_vehicles_dealer_id ON vehicles(dealer_id);
 CREATE INDEX idx_vehicles_status ON vehicles(status);
+-- Composite indexes for GET /api/vehicles/query filter combinations
+CREATE INDEX idx_vehicles_dealer_id_status ON vehicles(dealer_id, status);
+CREATE INDEX idx_vehicles_status_price ON vehicles(status, price);
 CREATE INDEX idx_payments_dealer_id ON payments(dealer_id);
 CREATE INDEX idx_payments_status ON payments(status);
 CREATE INDEX idx_payments_transaction_id ON payments(transaction_id);
+-- Keyset pagination of GET /api/payment orders by (created_at, id)
+CREATE INDEX idx_payments_created_at_id ON payments(created_at, id);
+-- Pending-payment sweep only scans the (small) PENDING slice, however large the history grows
+CREATE INDEX idx_payments_pending_updated_at ON payments(updated_at) WHERE status = 'PENDING';
 
 -- Sample data insert statements
 INSERT INTO dealers (name, email, subscription_type) VALUES
@@ -78,7 +119,8 @@ FROM dealers d
 LEFT JOIN vehicles v ON d.id = v.dealer_id 
 GROUP BY d.id, d.name, d.email, d.subscription_type;
 
--- Get payment summary by dealer
+-- Get payment summary by dealer (served by GET /api/payment/summary from payment_summaries;
+-- the full scan below is what the reconciliation job replaces, one dealer at a time)
 SELECT d.name, d.subscription_type, 
        COUNT(p.id) as total_payments,
        SUM(p.amount) as total_amount,
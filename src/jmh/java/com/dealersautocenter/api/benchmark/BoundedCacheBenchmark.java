@@ -0,0 +1,115 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.cache.BoundedCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link BoundedCache} under 64 threads, as on the request path where every authenticated request reads the
+ * verified-token cache and most read the dealer cache: all threads reading one hot key, reading keys spread over
+ * a full cache, and a mix of 90% reads and 10% puts of new keys, which keeps the cache evicting. The same reads
+ * are measured on an access-ordered {@link LinkedHashMap} behind one lock, the cache's former design.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(64)
+public class BoundedCacheBenchmark {
+    
+    private static final int SIZE = 10_000;
+    
+    private final BoundedCache<Long, String> cache = new BoundedCache<>(SIZE, 0);
+    private final LockedLruCache<Long, String> lockedCache = new LockedLruCache<>(SIZE);
+    
+    @Setup
+    public void setUp() {
+        for (long key = 0; key < SIZE; key++) {
+            cache.put(key, "dealer-" + key);
+            lockedCache.put(key, "dealer-" + key);
+        }
+    }
+    
+    @Benchmark
+    public String hotKeyGet() {
+        return cache.get(42L);
+    }
+    
+    @Benchmark
+    public String spreadGet() {
+        return cache.get(ThreadLocalRandom.current().nextLong(SIZE));
+    }
+    
+    @Benchmark
+    public String mixedGetAndPut() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            long key = random.nextLong(SIZE * 4L);
+            cache.put(key, "dealer-" + key);
+            return null;
+        }
+        return cache.get(random.nextLong(SIZE * 4L));
+    }
+    
+    @Benchmark
+    public String lockedHotKeyGet() {
+        return lockedCache.get(42L);
+    }
+    
+    @Benchmark
+    public String lockedSpreadGet() {
+        return lockedCache.get(ThreadLocalRandom.current().nextLong(SIZE));
+    }
+    
+    // Baseline: the former design, where every read reorders the map and checks expiry under the one lock
+    static final class LockedLruCache<K, V> {
+        
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Entry<V>> entries;
+        
+        LockedLruCache(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+        
+        V get(K key) {
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && now >= entry.expiresAtMillis()) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry == null ? null : entry.value();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void put(K key, V value) {
+            lock.lock();
+            try {
+                entries.put(key, new Entry<>(value, Long.MAX_VALUE));
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private record Entry<V>(V value, long expiresAtMillis) {}
+    }
+}
@@ -0,0 +1,64 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payloads returned by the vehicle and payment endpoints,
+ * using an ObjectMapper built the same way Spring Boot builds the one behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+    
+    @Param({"50", "500"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private List<VehicleDTO> vehicles;
+    private List<PaymentResponseDTO> payments;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        vehicles = new ArrayList<>(size);
+        payments = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            vehicles.add(new VehicleDTO((long) i, 1L, "Benchmark Model " + i, new BigDecimal("25000.00"),
+                    VehicleStatus.AVAILABLE, "Premium Motors", "premium@example.com"));
+            payments.add(new PaymentResponseDTO((long) i, 1L, new BigDecimal("999.99"), PaymentMethod.CARD,
+                    PaymentStatus.SUCCESS, "TXN" + (1_700_000_000_000L + i), now, now));
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeVehicles() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vehicles);
+    }
+    
+    @Benchmark
+    public byte[] serializePayments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(payments);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation cost of {@link JwtUtil}, the work done on every authenticated request.
+ * Validation is measured both for a token already in the verified-token cache and for one that must be
+ * parsed and signature-checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    
+    static final String SECRET = "mySecretKey123456789012345678901234567890";
+    static final String USERNAME = "benchmark-user";
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    // A one-entry cache alternating between two tokens, so every validation misses
+    private JwtUtil uncachedJwtUtil;
+    private String[] uncachedTokens;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken(USERNAME);
+        uncachedJwtUtil = newJwtUtil(1);
+        uncachedTokens = new String[] {
+            uncachedJwtUtil.generateToken(USERNAME),
+            uncachedJwtUtil.generateToken(USERNAME + "-2")
+        };
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(USERNAME);
+    }
+    
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, USERNAME);
+    }
+    
+    @Benchmark
+    public String verifyUncachedToken() {
+        next ^= 1;
+        return uncachedJwtUtil.verifyToken(uncachedTokens[next]);
+    }
+    
+    static JwtUtil newJwtUtil() {
+        return newJwtUtil(10_000);
+    }
+    
+    static JwtUtil newJwtUtil(int verifiedCacheSize) {
+        return new JwtUtil(SECRET, 86_400_000L, verifiedCacheSize, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,98 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.security.JwtRequestFilter;
+import com.dealersautocenter.api.security.JwtUtil;
+import com.dealersautocenter.api.security.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of {@link JwtRequestFilter} over a request, with and without a bearer token, including the
+ * revoked-token check. The uncached case alternates two tokens through a one-entry verified-token cache,
+ * so each pass parses and verifies once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtRequestFilterBenchmark {
+    
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+    
+    private JwtRequestFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    
+    private JwtRequestFilter uncachedFilter;
+    private MockHttpServletRequest[] uncachedRequests;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtBenchmark.newJwtUtil();
+        // Nothing is revoked, so the denylist answers from its Bloom filter without a repository
+        TokenDenylist tokenDenylist = new TokenDenylist(10_000, 0.001, new SimpleMeterRegistry());
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenDenylist", tokenDenylist);
+        
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/payment/dealer/1");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(JwtBenchmark.USERNAME));
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/vehicles/1");
+        response = new MockHttpServletResponse();
+        
+        JwtUtil uncachedJwtUtil = JwtBenchmark.newJwtUtil(1);
+        uncachedFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(uncachedFilter, "jwtUtil", uncachedJwtUtil);
+        ReflectionTestUtils.setField(uncachedFilter, "tokenDenylist", tokenDenylist);
+        uncachedRequests = new MockHttpServletRequest[2];
+        for (int i = 0; i < uncachedRequests.length; i++) {
+            uncachedRequests[i] = new MockHttpServletRequest("GET", "/api/payment/dealer/1");
+            uncachedRequests[i].addHeader("Authorization",
+                    "Bearer " + uncachedJwtUtil.generateToken(JwtBenchmark.USERNAME + "-" + i));
+        }
+    }
+    
+    @Benchmark
+    public Object filterWithBearerToken() throws ServletException, IOException {
+        return filter(authenticatedRequest);
+    }
+    
+    @Benchmark
+    public Object filterWithUncachedBearerToken() throws ServletException, IOException {
+        next ^= 1;
+        return filter(uncachedFilter, uncachedRequests[next]);
+    }
+    
+    @Benchmark
+    public Object filterWithoutToken() throws ServletException, IOException {
+        return filter(anonymousRequest);
+    }
+    
+    private Object filter(MockHttpServletRequest request) throws ServletException, IOException {
+        return filter(filter, request);
+    }
+    
+    private Object filter(JwtRequestFilter jwtFilter, MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            jwtFilter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.ratelimit.RateLimit;
+import com.dealersautocenter.api.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of one {@link RateLimiter} check with 64 threads: all on one hot key whose bucket always has room
+ * (every call is a contended compare-and-set), all on one exhausted key (the rejection path), and each
+ * thread on its own key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(64)
+public class RateLimiterBenchmark {
+    
+    private static final RateLimit UNLIMITED = RateLimit.of(1e12, 1_000_000);
+    private static final RateLimit EXHAUSTED = RateLimit.of(0.001, 1);
+    
+    private final RateLimiter limiter = new RateLimiter(100_000);
+    
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        
+        String key;
+        
+        @Setup
+        public void setUp() {
+            key = "subject:client-" + NEXT.incrementAndGet();
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        limiter.tryAcquire("dealer:exhausted", EXHAUSTED);
+    }
+    
+    @Benchmark
+    public long hotKeyAllowed() {
+        return limiter.tryAcquire("dealer:hot", UNLIMITED);
+    }
+    
+    @Benchmark
+    public long hotKeyRejected() {
+        return limiter.tryAcquire("dealer:exhausted", EXHAUSTED);
+    }
+    
+    @Benchmark
+    public long keyPerThread(ThreadKey threadKey) {
+        return limiter.tryAcquire(threadKey.key, UNLIMITED);
+    }
+}
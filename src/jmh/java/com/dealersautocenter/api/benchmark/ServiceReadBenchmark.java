@@ -0,0 +1,97 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.DealerManagementApiApplication;
+import com.dealersautocenter.api.dto.CursorPageDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.PaymentRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
+import com.dealersautocenter.api.service.PaymentService;
+import com.dealersautocenter.api.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths (query plus entity-to-DTO conversion) for vehicles and payments, against
+ * the full Spring context on H2 in PostgreSQL mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceReadBenchmark {
+    
+    private static final int ROWS_PER_DEALER = 200;
+    
+    private ConfigurableApplicationContext context;
+    private VehicleService vehicleService;
+    private PaymentService paymentService;
+    private Long dealerId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealerManagementApiApplication.class)
+                .profiles("benchmark")
+                .run();
+        vehicleService = context.getBean(VehicleService.class);
+        paymentService = context.getBean(PaymentService.class);
+        
+        Dealer dealer = context.getBean(DealerRepository.class)
+                .save(new Dealer("Benchmark Motors", "benchmark@example.com", SubscriptionType.PREMIUM));
+        dealerId = dealer.getId();
+        List<Vehicle> vehicles = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < ROWS_PER_DEALER; i++) {
+            vehicles.add(new Vehicle(dealerId, "Benchmark Model " + i, new BigDecimal("25000.00"), VehicleStatus.AVAILABLE));
+            // Settled payments, so the pending-payment job leaves them alone
+            payments.add(new Payment(dealerId, new BigDecimal("999.99"), PaymentMethod.CARD, PaymentStatus.SUCCESS));
+        }
+        context.getBean(VehicleRepository.class).saveAll(vehicles);
+        context.getBean(PaymentRepository.class).saveAll(payments);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<VehicleDTO> vehiclesByDealer() {
+        return vehicleService.getVehiclesByDealerId(dealerId);
+    }
+    
+    @Benchmark
+    public CursorPageDTO<VehicleDTO> vehiclePage() {
+        return vehicleService.getAllVehicles(50, null);
+    }
+    
+    @Benchmark
+    public List<PaymentResponseDTO> paymentsByDealer() {
+        return paymentService.getPaymentsByDealerId(dealerId);
+    }
+    
+    @Benchmark
+    public CursorPageDTO<PaymentResponseDTO> paymentPage() {
+        return paymentService.getAllPayments(50, null);
+    }
+}
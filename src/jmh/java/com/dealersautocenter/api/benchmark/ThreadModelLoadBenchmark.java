@@ -0,0 +1,194 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.DealerManagementApiApplication;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
+import com.dealersautocenter.api.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of {@value #CONCURRENCY} concurrent HTTP requests against {@code GET /api/vehicles} and
+ * {@code POST /api/payment/initiate}, served on Tomcat's platform thread pool (200 threads) or on virtual
+ * threads. Every JDBC statement waits {@value #JDBC_LATENCY_MS} ms before reaching H2, standing in for the
+ * round trip to a database that has capacity to spare, so the run measures how many blocked requests each
+ * thread model keeps in flight rather than CPU cost. The connection pool is sized to the burst so it is
+ * not the bottleneck.
+ *
+ * The {@code virtual} case needs JDK 21: run with {@code -Pbenchmarks,virtual-threads} on a JDK 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModelLoadBenchmark {
+    
+    private static final int CONCURRENCY = 400;
+    private static final long JDBC_LATENCY_MS = 20;
+    
+    @Param({"platform", "virtual"})
+    public String threadModel;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String bearerToken;
+    private final List<Long> dealerIds = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threadModel);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need JDK 21, running on " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(DealerManagementApiApplication.class)
+                .profiles("benchmark")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new SlowJdbcPostProcessor()))
+                // Arguments rather than default properties, which application.properties would override
+                .run("--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONCURRENCY,
+                        "--app.ratelimit.enabled=false",
+                        // Keep settlement and the pending-payment sweep out of the measurement; payments stay PENDING
+                        "--app.payment.settlement.delay-ms=3600000",
+                        "--app.payment.sweep.interval-ms=3600000",
+                        "--app.payment.settlement.max-in-flight=100000000");
+        
+        List<Dealer> dealers = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            dealers.add(new Dealer("Load Dealer " + i, "load-" + i + "@example.com", SubscriptionType.PREMIUM));
+        }
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (Dealer dealer : context.getBean(DealerRepository.class).saveAll(dealers)) {
+            dealerIds.add(dealer.getId());
+            vehicles.add(new Vehicle(dealer.getId(), "Load Model", new BigDecimal("25000.00"), VehicleStatus.AVAILABLE));
+        }
+        context.getBean(VehicleRepository.class).saveAll(vehicles);
+        
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        bearerToken = "Bearer " + context.getBean(JwtUtil.class).generateToken("load-test");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int vehiclesBurst() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/vehicles?limit=20")).GET().build();
+        List<HttpRequest> burst = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            burst.add(request);
+        }
+        return send(burst);
+    }
+    
+    @Benchmark
+    public int initiatePaymentBurst() {
+        List<HttpRequest> burst = new ArrayList<>();
+        for (Long dealerId : dealerIds) {
+            String body = "{\"dealerId\":" + dealerId + ",\"amount\":99.99,\"method\":\"CARD\"}";
+            burst.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/payment/initiate"))
+                    .header("Authorization", bearerToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+        }
+        return send(burst);
+    }
+    
+    private int send(List<HttpRequest> burst) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+        for (HttpRequest request : burst) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            int status = response.join().statusCode();
+            // A rejected request would make the burst look cheaper than it is
+            if (status >= 300) {
+                throw new IllegalStateException("Unexpected status " + status);
+            }
+        }
+        return responses.size();
+    }
+    
+    /**
+     * Wraps the application's DataSource so that every statement execution first sleeps for the simulated
+     * database round trip.
+     */
+    private static class SlowJdbcPostProcessor implements BeanPostProcessor {
+        
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return slow(super.getConnection(), Connection.class);
+                }
+                
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return slow(super.getConnection(username, password), Connection.class);
+                }
+            };
+        }
+        
+        private static <T> T slow(T target, Class<T> type) {
+            Class<?>[] interfaces = type == Connection.class
+                    ? new Class<?>[] {Connection.class}
+                    : target.getClass().getInterfaces();
+            Object proxy = Proxy.newProxyInstance(ThreadModelLoadBenchmark.class.getClassLoader(), interfaces,
+                    (instance, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            Thread.sleep(JDBC_LATENCY_MS);
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        // Statements handed out by the connection get the same delay
+                        return result instanceof Statement statement ? slow(statement, Statement.class) : result;
+                    });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.id.SnowflakeTransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction id throughput of {@link SnowflakeTransactionIdGenerator}, uncontended and with eight threads
+ * sharing one generator, next to the previous time-plus-random scheme.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdBenchmark {
+    
+    private final SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1);
+    
+    @Benchmark
+    public String snowflake() {
+        return generator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return generator.nextId();
+    }
+    
+    @Benchmark
+    public long snowflakeRaw() {
+        return generator.nextLong();
+    }
+    
+    @Benchmark
+    public String legacyTimePlusRandom() {
+        return "TXN" + System.currentTimeMillis() + (int)(Math.random() * 1000);
+    }
+}
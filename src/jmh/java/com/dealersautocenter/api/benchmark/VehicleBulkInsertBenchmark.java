@@ -0,0 +1,79 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.DealerManagementApiApplication;
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per vehicle of {@value #ROWS}-row inserts through the single-row create path and through the bulk
+ * endpoint's batched inserts; the ratio of the two scores is the bulk speedup. Runs on H2 like the other
+ * repository-backed benchmarks, where a statement costs no round trip; for PostgreSQL add the
+ * {@code benchmark-postgres} profile:
+ * {@code SPRING_PROFILES_ACTIVE=benchmark-postgres mvn -Pbenchmarks verify -DskipTests -Djmh.includes=VehicleBulkInsert}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(VehicleBulkInsertBenchmark.ROWS)
+public class VehicleBulkInsertBenchmark {
+    
+    static final int ROWS = 1_000;
+    
+    private ConfigurableApplicationContext context;
+    private VehicleService vehicleService;
+    private final List<VehicleDTO> rows = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealerManagementApiApplication.class)
+                .profiles("benchmark")
+                .run();
+        vehicleService = context.getBean(VehicleService.class);
+        
+        Dealer dealer = context.getBean(DealerRepository.class)
+                .save(new Dealer("Bulk Benchmark Motors", "bulk-benchmark@example.com", SubscriptionType.BASIC));
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new VehicleDTO(null, dealer.getId(), "Benchmark Sedan " + i, new BigDecimal("18000.00"),
+                    VehicleStatus.AVAILABLE));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void singleRowCreate(Blackhole blackhole) {
+        for (VehicleDTO row : rows) {
+            blackhole.consume(vehicleService.createVehicle(row));
+        }
+    }
+    
+    @Benchmark
+    public BulkResultDTO bulkCreate() {
+        return vehicleService.bulkCreateVehicles(rows);
+    }
+}
@@ -0,0 +1,97 @@
+package com.dealersautocenter.api.benchmark;
+
+import com.dealersautocenter.api.DealerManagementApiApplication;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
+import com.dealersautocenter.api.service.VehicleModelIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model search over {@value #ROWS} vehicles: the trigram {@link VehicleModelIndex} against the LIKE query it
+ * replaced, for the first page of 50 matches. Setup checks that both return the same ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VehicleModelSearchBenchmark {
+    
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String[] MAKES = {"BMW", "Audi", "Toyota", "Honda", "Ford", "Nissan", "Porsche", "Jaguar"};
+    
+    @Param({"BMW X", "Corolla", "Series 7", "GT 12", "Accord"})
+    private String query;
+    
+    private ConfigurableApplicationContext context;
+    private VehicleRepository vehicleRepository;
+    private VehicleModelIndex vehicleModelIndex;
+    private final Pageable firstPage = PageRequest.of(0, PAGE_SIZE);
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealerManagementApiApplication.class)
+                .profiles("benchmark")
+                .run();
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        vehicleModelIndex = context.getBean(VehicleModelIndex.class);
+        
+        Dealer dealer = context.getBean(DealerRepository.class)
+                .save(new Dealer("Search Benchmark Motors", "search-benchmark@example.com", SubscriptionType.BASIC));
+        insertVehicles(context.getBean(JdbcTemplate.class), dealer.getId());
+        vehicleModelIndex.rebuild();
+        
+        List<Long> likeIds = likeQuery().stream().map(VehicleDTO::getId).toList();
+        if (!likeIds.equals(indexSearch())) {
+            throw new IllegalStateException("Index and LIKE query disagree for \"" + query + "\"");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<VehicleDTO> likeQuery() {
+        return vehicleRepository.findVehicleDTOsByModelContaining(query, firstPage);
+    }
+    
+    @Benchmark
+    public List<Long> indexSearch() {
+        return vehicleModelIndex.search(query, false, false, PAGE_SIZE);
+    }
+    
+    private static void insertVehicles(JdbcTemplate jdbcTemplate, Long dealerId) {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String model = MAKES[i % MAKES.length] + " " + (i % 3 == 0 ? "Series " : i % 3 == 1 ? "GT " : "Corolla ") + (i % 2000);
+            batch.add(new Object[]{dealerId, model, 20000 + (i % 50000), "AVAILABLE"});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO vehicles (id, dealer_id, model, price, status) " +
+                        "VALUES (nextval('vehicles_id_seq'), ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
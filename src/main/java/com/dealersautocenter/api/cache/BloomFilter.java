@@ -0,0 +1,101 @@
+package com.dealersautocenter.api.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter over keys that are already uniformly distributed hashes (e.g. SHA-256 digests).
+ *
+ * The first 16 bytes of a key give two 64-bit hashes, combined by double hashing into the bit positions.
+ * Bits live in an {@link AtomicLongArray}, so adds and lookups never lock; a filter only grows, so removing
+ * keys means building a new one.
+ */
+public class BloomFilter {
+    
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+    
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+    
+    /**
+     * Sizes a filter for {@code expectedInsertions} keys at the target false-positive probability.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and the probability in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2)));
+        if (bits > 64L * Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter would be too large");
+        }
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+    
+    public void put(byte[] key) {
+        long h1 = hash(key, 0);
+        long h2 = hash(key, 8) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        insertions.increment();
+    }
+    
+    /**
+     * Returns {@code false} if the key was definitely never added, {@code true} if it probably was.
+     */
+    public boolean mightContain(byte[] key) {
+        long h1 = hash(key, 0);
+        long h2 = hash(key, 8) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * False-positive probability implied by the number of keys added so far.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.sum() / bitCount), hashCount);
+    }
+    
+    public long insertionCount() {
+        return insertions.sum();
+    }
+    
+    public long bitSize() {
+        return bitCount;
+    }
+    
+    public int hashCount() {
+        return hashCount;
+    }
+    
+    private static long hash(byte[] key, int offset) {
+        if (key.length < offset + 8) {
+            throw new IllegalArgumentException("Keys must be at least 16 bytes of hash output");
+        }
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (key[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,218 @@
+package com.dealersautocenter.api.cache;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded, approximately LRU cache with optional per-entry expiry and hit/miss/eviction counters.
+ *
+ * Entries live in a {@link ConcurrentHashMap}, so reads take no lock; each entry records when it was last
+ * read (to within a millisecond, so a hot entry is not rewritten on every hit). A put that takes the cache
+ * past {@code maxSize} evicts the least recently read sixteenth of the entries in one pass, under a lock only
+ * evicting writers contend for. Values are never loaded inside the cache, so callers look up, load outside
+ * the cache, then put.
+ */
+public class BoundedCache<K, V> {
+    
+    private static final long ACCESS_RESOLUTION_NANOS = 1_000_000L;
+    private static final long NEVER = Long.MAX_VALUE;
+    // Longest expiry kept in System.nanoTime terms without overflowing (about 140 years)
+    private static final long MAX_REMAINING_MILLIS = Long.MAX_VALUE / 2 / 1_000_000L;
+    
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    /**
+     * @param maxSize   maximum number of entries before the least recently used ones are evicted
+     * @param ttlMillis default time to live of an entry, or 0 to keep entries until evicted
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry != null && entry.isExpired(now)) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.touch(now);
+        hits.increment();
+        return entry.value;
+    }
+    
+    public void put(K key, V value) {
+        long now = System.nanoTime();
+        entries.put(key, new Entry<>(value, defaultExpiry(now), now));
+        puts.increment();
+        evictOverflow();
+    }
+    
+    /**
+     * Stores a value that expires at the given epoch millisecond, regardless of the default TTL
+     * ({@link Long#MAX_VALUE} for never).
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = System.nanoTime();
+        long expiresAt = NEVER;
+        if (expiresAtMillis != Long.MAX_VALUE) {
+            long remainingMillis = Math.min(expiresAtMillis - System.currentTimeMillis(), MAX_REMAINING_MILLIS);
+            expiresAt = now + remainingMillis * 1_000_000L;
+        }
+        entries.put(key, new Entry<>(value, expiresAt, now));
+        puts.increment();
+        evictOverflow();
+    }
+    
+    /**
+     * Stores the value only if no entry is cached yet and returns whichever value ends up cached.
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = System.nanoTime();
+        Entry<V> fresh = new Entry<>(value, defaultExpiry(now), now);
+        Entry<V> cached = entries.compute(key,
+                (k, existing) -> existing != null && !existing.isExpired(now) ? existing : fresh);
+        if (cached != fresh) {
+            return cached.value;
+        }
+        puts.increment();
+        evictOverflow();
+        return value;
+    }
+    
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+    
+    public void invalidateAll() {
+        entries.clear();
+    }
+    
+    /**
+     * Drops every expired entry; useful when entries carry their own expiry and are rarely read.
+     */
+    public int removeExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now) && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public int maxSize() {
+        return maxSize;
+    }
+    
+    public long hitCount() {
+        return hits.sum();
+    }
+    
+    public long missCount() {
+        return misses.sum();
+    }
+    
+    public long putCount() {
+        return puts.sum();
+    }
+    
+    public long evictionCount() {
+        return evictions.sum();
+    }
+    
+    private long defaultExpiry(long now) {
+        return ttlMillis > 0 ? now + Math.min(ttlMillis, MAX_REMAINING_MILLIS) * 1_000_000L : NEVER;
+    }
+    
+    private void evictOverflow() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            // Another writer may have evicted while this one waited
+            if (entries.size() <= maxSize) {
+                return;
+            }
+            removeExpired();
+            int excess = entries.size() - (maxSize - maxSize / 16);
+            if (excess > 0) {
+                evictLeastRecentlyRead(excess);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    // Removes about count entries, those read longest ago
+    private void evictLeastRecentlyRead(int count) {
+        long[] accessTimes = entries.values().stream().mapToLong(entry -> entry.accessedAt).toArray();
+        if (accessTimes.length == 0) {
+            return;
+        }
+        Arrays.sort(accessTimes);
+        long cutoff = accessTimes[Math.min(count, accessTimes.length) - 1];
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (removed < count && iterator.hasNext()) {
+            if (iterator.next().getValue().accessedAt - cutoff <= 0) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        evictions.add(removed);
+    }
+    
+    private static final class Entry<V> {
+        
+        final V value;
+        // In System.nanoTime terms, so a read needs one clock read for both expiry and recency
+        final long expiresAt;
+        volatile long accessedAt;
+        
+        Entry(V value, long expiresAt, long accessedAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+        }
+        
+        boolean isExpired(long now) {
+            return expiresAt != NEVER && now - expiresAt >= 0;
+        }
+        
+        void touch(long now) {
+            if (now - accessedAt > ACCESS_RESOLUTION_NANOS) {
+                accessedAt = now;
+            }
+        }
+    }
+}
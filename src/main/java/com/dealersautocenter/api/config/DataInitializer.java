@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
+import java.util.List;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -69,6 +70,7 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("Premium Dealers: " + dealerRepository.findBySubscriptionType(SubscriptionType.PREMIUM).size());
         System.out.println("Basic Dealers: " + dealerRepository.findBySubscriptionType(SubscriptionType.BASIC).size());
         System.out.println("Total Vehicles: " + vehicleRepository.count());
-        System.out.println("Vehicles from Premium Dealers: " + vehicleRepository.findAllVehiclesFromPremiumDealers().size());
+        System.out.println("Vehicles from Premium Dealers: " + vehicleRepository.countByDealerIdIn(
+            List.of(dealer1.getId(), dealer3.getId())));
     }
 }
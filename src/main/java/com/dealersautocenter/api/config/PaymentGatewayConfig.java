@@ -0,0 +1,43 @@
+package com.dealersautocenter.api.config;
+
+import com.dealersautocenter.api.gateway.CircuitBreaker;
+import com.dealersautocenter.api.gateway.PaymentGateway;
+import com.dealersautocenter.api.gateway.ResilientPaymentGateway;
+import com.dealersautocenter.api.gateway.SimulatedPaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaymentGatewayConfig {
+    
+    /**
+     * The gateway used for settlement: the simulated provider behind a per-method bulkhead, circuit breaker
+     * and timeout. A real provider client would replace only the delegate.
+     */
+    @Bean
+    public PaymentGateway paymentGateway(
+            @Value("${app.payment.gateway.simulated.success-rate:0.9}") double successRate,
+            @Value("${app.payment.gateway.simulated.latency-median-ms:50}") long latencyMedianMillis,
+            @Value("${app.payment.gateway.simulated.latency-p99-ms:250}") long latencyP99Millis,
+            @Value("${app.payment.gateway.simulated.error-rate:0}") double errorRate,
+            @Value("${app.payment.gateway.simulated.timeout-rate:0}") double timeoutRate,
+            @Value("${app.payment.gateway.timeout-ms:2000}") long timeoutMillis,
+            @Value("${app.payment.gateway.bulkhead.max-concurrent:50}") int maxConcurrentPerMethod,
+            @Value("${app.payment.gateway.bulkhead.max-wait-ms:50}") long maxWaitMillis,
+            @Value("${app.payment.gateway.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${app.payment.gateway.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${app.payment.gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.payment.gateway.circuit-breaker.open-ms:10000}") long openMillis,
+            @Value("${app.payment.gateway.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+            @Value("${app.payment.gateway.callback-threads:4}") int callbackThreads,
+            MeterRegistry meterRegistry) {
+        PaymentGateway simulated = new SimulatedPaymentGateway(successRate, latencyMedianMillis, latencyP99Millis,
+                errorRate, timeoutRate);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls,
+                openMillis, halfOpenCalls);
+        return new ResilientPaymentGateway(simulated, timeoutMillis, maxConcurrentPerMethod, maxWaitMillis,
+                circuitBreaker, callbackThreads, meterRegistry);
+    }
+}
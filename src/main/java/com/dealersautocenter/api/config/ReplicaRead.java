@@ -0,0 +1,19 @@
+package com.dealersautocenter.api.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transactions of the annotated method be served by a read replica, which may lag the
+ * primary by a moment. Read-only transactions without it stay on the primary, so only reads that can
+ * tolerate slightly stale data should carry it. Applied by {@link ReplicaReadConfig} to calls made through
+ * the bean's proxy, like {@code @Transactional}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
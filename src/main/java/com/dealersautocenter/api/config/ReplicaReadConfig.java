@@ -0,0 +1,34 @@
+package com.dealersautocenter.api.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+@Configuration
+public class ReplicaReadConfig {
+    
+    /**
+     * Marks the thread for {@link ReplicaRoutingDataSource} while a {@link ReplicaRead} method runs. An
+     * infrastructure bean, so the auto-proxy creator that applies {@code @Transactional} picks it up too.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaReadAdvisor() {
+        MethodInterceptor interceptor = invocation -> {
+            boolean marked = ReplicaRoutingDataSource.markReplicaReads();
+            try {
+                return invocation.proceed();
+            } finally {
+                if (marked) {
+                    ReplicaRoutingDataSource.unmarkReplicaReads();
+                }
+            }
+        };
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ReplicaRead.class), interceptor);
+    }
+}
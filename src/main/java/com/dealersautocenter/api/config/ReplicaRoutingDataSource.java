@@ -0,0 +1,180 @@
+package com.dealersautocenter.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections, round-robin across the replicas, to read-only transactions that run inside
+ * a {@link ReplicaRead} method (or {@link #allowingReplicaReads}), and primary connections to everything else.
+ * Other read-only transactions, such as those Spring Data opens around an inherited {@code findById} on a
+ * write path, therefore see the primary.
+ *
+ * A replica that fails to produce a connection is skipped for {@code retryMillis}, and its reads go to the next
+ * replica or, when none is left, to the primary. Transactions choose their connection before Spring marks
+ * them read-only, so this must sit behind a {@code LazyConnectionDataSourceProxy}, which defers fetching the
+ * connection until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    // Transaction resource key bound while replica reads are allowed
+    private static final Object REPLICA_READS = ReplicaRead.class;
+    
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retryMillis;
+    private final LongSupplier clock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long retryMillis) {
+        this(primary, replicas, retryMillis, System::currentTimeMillis);
+    }
+    
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long retryMillis, LongSupplier clock) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(i, replicas.get(i)));
+        }
+        this.retryMillis = retryMillis;
+        this.clock = clock;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            Connection connection = replicaConnection(null, null);
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (routesToReplica()) {
+            Connection connection = replicaConnection(username, password);
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+    
+    /**
+     * Number of replicas currently taking reads.
+     */
+    public int availableReplicas() {
+        long now = clock.getAsLong();
+        return (int) replicas.stream().filter(replica -> replica.isAvailable(now)).count();
+    }
+    
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            closeIfPossible(replica.dataSource);
+        }
+        closeIfPossible(primary);
+    }
+    
+    /**
+     * Runs {@code work} with its read-only transactions allowed onto a replica, as a {@link ReplicaRead}
+     * method does.
+     */
+    public static <T> T allowingReplicaReads(Supplier<T> work) {
+        boolean marked = markReplicaReads();
+        try {
+            return work.get();
+        } finally {
+            if (marked) {
+                unmarkReplicaReads();
+            }
+        }
+    }
+    
+    // True when this call marked the thread, and so has to unmark it; nested calls keep the outer marking
+    static boolean markReplicaReads() {
+        if (TransactionSynchronizationManager.hasResource(REPLICA_READS)) {
+            return false;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READS, Boolean.TRUE);
+        return true;
+    }
+    
+    static void unmarkReplicaReads() {
+        TransactionSynchronizationManager.unbindResource(REPLICA_READS);
+    }
+    
+    private boolean routesToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && TransactionSynchronizationManager.hasResource(REPLICA_READS);
+    }
+    
+    // Tries each replica once, starting with the next one in turn; null when none could connect
+    private Connection replicaConnection(String username, String password) {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isAvailable(clock.getAsLong())) {
+                continue;
+            }
+            try {
+                Connection connection = username == null
+                        ? replica.dataSource.getConnection()
+                        : replica.dataSource.getConnection(username, password);
+                replica.markUp();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(clock.getAsLong() + retryMillis);
+                log.warn("Replica {} is unavailable, sending its reads elsewhere for {} ms: {}",
+                        replica.index, retryMillis, e.getMessage());
+            }
+        }
+        return null;
+    }
+    
+    private static void closeIfPossible(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+    
+    private static class Replica {
+        
+        private final int index;
+        private final DataSource dataSource;
+        private volatile long downUntil;
+        
+        Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+        
+        boolean isAvailable(long now) {
+            return now >= downUntil;
+        }
+        
+        void markDown(long until) {
+            downUntil = until;
+        }
+        
+        void markUp() {
+            if (downUntil != 0) {
+                downUntil = 0;
+                log.info("Replica {} is taking reads again", index);
+            }
+        }
+    }
+}
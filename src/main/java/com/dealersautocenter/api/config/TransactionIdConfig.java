@@ -0,0 +1,43 @@
+package com.dealersautocenter.api.config;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.id.SnowflakeTransactionIdGenerator;
+import com.dealersautocenter.api.id.TransactionIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+@Configuration
+public class TransactionIdConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdConfig.class);
+    
+    // Profiles that run a single instance against their own database, where any node id is unique
+    private static final Profiles SINGLE_INSTANCE_PROFILES = Profiles.of("dev", "test", "benchmark");
+    
+    /**
+     * Generator for payment transaction ids. Every instance sharing a database needs its own
+     * {@code app.payment.node-id}, so startup fails when it is unset, except under the dev, test and
+     * benchmark profiles, which use node 0.
+     */
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(@Value("${app.payment.node-id:-1}") int nodeId,
+                                                         Environment environment) {
+        if (nodeId < 0) {
+            if (!environment.acceptsProfiles(SINGLE_INSTANCE_PROFILES)) {
+                throw new IllegalStateException("app.payment.node-id (PAYMENT_NODE_ID) must be set to a value "
+                        + "between 0 and " + SnowflakeTransactionIdGenerator.MAX_NODE_ID
+                        + " that is unique among the instances sharing the database");
+            }
+            nodeId = 0;
+            log.info("app.payment.node-id is not set; using node id 0 for a single-instance profile");
+        }
+        TransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(nodeId);
+        Payment.useTransactionIdGenerator(generator);
+        return generator;
+    }
+}
@@ -1,9 +1,13 @@
 package com.dealersautocenter.api.controller;
 
 import com.dealersautocenter.api.security.JwtUtil;
+import com.dealersautocenter.api.security.TokenDenylist;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
@@ -17,6 +21,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenDenylist tokenDenylist;
+    
     @PostMapping("/login")
     @Operation(summary = "Generate JWT token", description = "Generate JWT token for authentication (demo purposes)")
     public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> loginRequest) {
@@ -39,6 +46,24 @@ public class AuthController {
         return ResponseEntity.status(401).body(error);
     }
     
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke JWT token", description = "Revoke the bearer token sent with this request until it expires")
+    @ApiResponse(responseCode = "204", description = "Token revoked")
+    @ApiResponse(responseCode = "400", description = "Missing, invalid or expired bearer token")
+    public ResponseEntity<Void> logout(
+            @Parameter(description = "Bearer token to revoke")
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            tokenDenylist.revoke(authorization.substring(7));
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping("/generate-token")
     @Operation(summary = "Generate demo token", description = "Generate a demo JWT token without authentication")
     public ResponseEntity<Map<String, String>> generateDemoToken() {
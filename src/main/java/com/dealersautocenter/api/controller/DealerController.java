@@ -1,5 +1,6 @@
 package com.dealersautocenter.api.controller;
 
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.DealerDTO;
 import com.dealersautocenter.api.entity.SubscriptionType;
 import com.dealersautocenter.api.service.DealerService;
@@ -12,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,21 +26,35 @@ public class DealerController {
     private DealerService dealerService;
     
     @GetMapping
-    @Operation(summary = "Get all dealers", description = "Retrieve a list of all dealers")
+    @Operation(summary = "Get all dealers", description = "Retrieve dealers one page at a time, ordered by ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved dealers")
-    public ResponseEntity<List<DealerDTO>> getAllDealers() {
-        List<DealerDTO> dealers = dealerService.getAllDealers();
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageDTO<DealerDTO>> getAllDealers(
+            @Parameter(description = "Maximum number of dealers to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) String after) {
+        CursorPageDTO<DealerDTO> dealers = dealerService.getAllDealers(limit, after);
         return ResponseEntity.ok(dealers);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get dealer by ID", description = "Retrieve a dealer by their ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved dealer")
+    @ApiResponse(responseCode = "304", description = "Dealer unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Dealer not found")
     public ResponseEntity<DealerDTO> getDealerById(
-            @Parameter(description = "Dealer ID") @PathVariable Long id) {
-        Optional<DealerDTO> dealer = dealerService.getDealerById(id);
-        return dealer.map(ResponseEntity::ok)
+            @Parameter(description = "Dealer ID") @PathVariable Long id,
+            WebRequest request) {
+        Optional<String> eTag = dealerService.getDealerETag(id);
+        if (eTag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        Optional<DealerDTO> dealer = dealerService.getDealerById(id, eTag.get());
+        return dealer.map(body -> ResponseEntity.ok().eTag(eTag.get()).body(body))
                     .orElse(ResponseEntity.notFound().build());
     }
     
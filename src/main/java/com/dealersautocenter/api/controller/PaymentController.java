@@ -1,18 +1,34 @@
 package com.dealersautocenter.api.controller;
 
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.PaymentRequestDTO;
 import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.PaymentSummaryDTO;
 import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.EventStreamCapacityExceededException;
+import com.dealersautocenter.api.exception.IdempotencyKeyConflictException;
+import com.dealersautocenter.api.exception.PaymentStatusConflictException;
+import com.dealersautocenter.api.exception.SettlementCapacityExceededException;
+import com.dealersautocenter.api.service.PaymentEventPublisher;
+import com.dealersautocenter.api.service.PaymentIdempotencyGuard;
 import com.dealersautocenter.api.service.PaymentService;
+import com.dealersautocenter.api.service.PaymentSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,30 +37,116 @@ import java.util.Optional;
 @Tag(name = "Payment Gateway", description = "APIs for payment processing")
 public class PaymentController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     @Autowired
     private PaymentService paymentService;
     
+    @Autowired
+    private PaymentIdempotencyGuard paymentIdempotencyGuard;
+    
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+    
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+    
     @PostMapping("/initiate")
     @Operation(summary = "Initiate payment", description = "Initiate a payment for dealer subscription")
     @ApiResponse(responseCode = "201", description = "Payment initiated successfully")
     @ApiResponse(responseCode = "400", description = "Invalid payment request")
-    public ResponseEntity<PaymentResponseDTO> initiatePayment(@Valid @RequestBody PaymentRequestDTO paymentRequest) {
+    @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request")
+    @ApiResponse(responseCode = "503", description = "Too many payments awaiting settlement; retry after the Retry-After delay")
+    public ResponseEntity<PaymentResponseDTO> initiatePayment(
+            @Parameter(description = "Client-generated key; retries with the same key return the original payment")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody PaymentRequestDTO paymentRequest,
+            Principal principal) {
         try {
-            PaymentResponseDTO payment = paymentService.initiatePayment(paymentRequest);
+            PaymentResponseDTO payment = idempotencyKey == null
+                    ? paymentService.initiatePayment(paymentRequest)
+                    : paymentIdempotencyGuard.initiate(principal.getName(), idempotencyKey, paymentRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+        } catch (IdempotencyKeyConflictException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (SettlementCapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    @PostMapping("/initiate/bulk")
+    @Operation(summary = "Initiate payments in bulk", description = "Initiate up to 20000 payments in one request; invalid rows are reported individually and do not stop the rest")
+    @ApiResponse(responseCode = "201", description = "All payments initiated")
+    @ApiResponse(responseCode = "207", description = "Some payments failed; see the error of each item")
+    @ApiResponse(responseCode = "400", description = "Too many payments in one request")
+    public ResponseEntity<BulkResultDTO> bulkInitiatePayments(@RequestBody List<PaymentRequestDTO> paymentRequests) {
+        BulkResultDTO result = paymentService.bulkInitiatePayments(paymentRequests);
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+    
     @GetMapping
-    @Operation(summary = "Get all payments", description = "Retrieve a list of all payments")
+    @Operation(summary = "Get all payments", description = "Retrieve payments one page at a time, ordered by creation time")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved payments")
-    public ResponseEntity<List<PaymentResponseDTO>> getAllPayments() {
-        List<PaymentResponseDTO> payments = paymentService.getAllPayments();
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageDTO<PaymentResponseDTO>> getAllPayments(
+            @Parameter(description = "Maximum number of payments to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) String after) {
+        CursorPageDTO<PaymentResponseDTO> payments = paymentService.getAllPayments(limit, after);
         return ResponseEntity.ok(payments);
     }
     
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export all payments", description = "Stream every payment as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Payments streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportPayments() {
+        StreamingResponseBody body = paymentService::exportPayments;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream payment status changes",
+               description = "Server-Sent Events (event name payment-status) for every payment status transition")
+    @ApiResponse(responseCode = "200", description = "Stream opened")
+    @ApiResponse(responseCode = "503", description = "Too many open streams, overall or for this dealer; retry after the Retry-After delay")
+    public ResponseEntity<SseEmitter> streamPaymentStatus(
+            @Parameter(description = "Only stream payments of this dealer")
+            @RequestParam(required = false) Long dealerId) {
+        try {
+            return ResponseEntity.ok(paymentEventPublisher.subscribe(dealerId));
+        } catch (EventStreamCapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+    }
+    
+    @GetMapping("/summary")
+    @Operation(summary = "Get payment summaries", description = "Payment counts and totals for every dealer with payments")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved summaries")
+    public ResponseEntity<List<PaymentSummaryDTO>> getPaymentSummaries() {
+        return ResponseEntity.ok(paymentSummaryService.getAllSummaries());
+    }
+    
+    @GetMapping("/summary/{dealerId}")
+    @Operation(summary = "Get dealer payment summary", description = "Payment counts and totals for one dealer")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved summary")
+    @ApiResponse(responseCode = "404", description = "Dealer not found")
+    public ResponseEntity<PaymentSummaryDTO> getPaymentSummary(
+            @Parameter(description = "Dealer ID") @PathVariable Long dealerId) {
+        Optional<PaymentSummaryDTO> summary = paymentSummaryService.getSummary(dealerId);
+        return summary.map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get payment by ID", description = "Retrieve a payment by its ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved payment")
@@ -56,6 +158,18 @@ public class PaymentController {
                      .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/{id}/await")
+    @Operation(summary = "Wait for payment completion",
+               description = "Long-poll until the payment leaves PENDING or the timeout expires, then return it")
+    @ApiResponse(responseCode = "200", description = "Payment settled, or still PENDING when the timeout expired")
+    @ApiResponse(responseCode = "404", description = "Payment not found")
+    @ApiResponse(responseCode = "503", description = "Too many waiting requests; retry after the Retry-After delay")
+    public DeferredResult<ResponseEntity<PaymentResponseDTO>> awaitPayment(
+            @Parameter(description = "Payment ID") @PathVariable Long id,
+            @Parameter(description = "Seconds to wait (1-60)") @RequestParam(defaultValue = "30") long timeout) {
+        return paymentService.awaitPayment(id, timeout);
+    }
+    
     @GetMapping("/dealer/{dealerId}")
     @Operation(summary = "Get payments by dealer", description = "Retrieve all payments for a specific dealer")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved payments")
@@ -90,12 +204,15 @@ public class PaymentController {
     @Operation(summary = "Update payment status", description = "Update the status of a payment (for testing purposes)")
     @ApiResponse(responseCode = "200", description = "Payment status updated successfully")
     @ApiResponse(responseCode = "404", description = "Payment not found")
+    @ApiResponse(responseCode = "409", description = "Transition not allowed, or the payment was changed concurrently")
     public ResponseEntity<PaymentResponseDTO> updatePaymentStatus(
             @Parameter(description = "Payment ID") @PathVariable Long id,
             @Parameter(description = "New payment status") @RequestParam PaymentStatus status) {
         try {
             PaymentResponseDTO payment = paymentService.updatePaymentStatus(id, status);
             return ResponseEntity.ok(payment);
+        } catch (PaymentStatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
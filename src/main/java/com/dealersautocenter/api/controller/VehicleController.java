@@ -1,6 +1,10 @@
 package com.dealersautocenter.api.controller;
 
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.dto.VehicleQueryResultDTO;
+import com.dealersautocenter.api.entity.SubscriptionType;
 import com.dealersautocenter.api.entity.VehicleStatus;
 import com.dealersautocenter.api.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +14,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +28,34 @@ import java.util.Optional;
 @Tag(name = "Vehicle Management", description = "APIs for managing vehicles")
 public class VehicleController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     @Autowired
     private VehicleService vehicleService;
     
     @GetMapping
-    @Operation(summary = "Get all vehicles", description = "Retrieve a list of all vehicles")
+    @Operation(summary = "Get all vehicles", description = "Retrieve vehicles one page at a time, ordered by ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicles")
-    public ResponseEntity<List<VehicleDTO>> getAllVehicles() {
-        List<VehicleDTO> vehicles = vehicleService.getAllVehicles();
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageDTO<VehicleDTO>> getAllVehicles(
+            @Parameter(description = "Maximum number of vehicles to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) String after) {
+        CursorPageDTO<VehicleDTO> vehicles = vehicleService.getAllVehicles(limit, after);
         return ResponseEntity.ok(vehicles);
     }
     
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export all vehicles", description = "Stream every vehicle as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "Vehicles streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportVehicles() {
+        StreamingResponseBody body = vehicleService::exportVehicles;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get vehicle by ID", description = "Retrieve a vehicle by its ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicle")
@@ -45,10 +70,16 @@ public class VehicleController {
     @GetMapping("/dealer/{dealerId}")
     @Operation(summary = "Get vehicles by dealer", description = "Retrieve all vehicles belonging to a specific dealer")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved vehicles")
+    @ApiResponse(responseCode = "304", description = "Vehicles unchanged since the ETag in If-None-Match")
     public ResponseEntity<List<VehicleDTO>> getVehiclesByDealerId(
-            @Parameter(description = "Dealer ID") @PathVariable Long dealerId) {
+            @Parameter(description = "Dealer ID") @PathVariable Long dealerId,
+            WebRequest request) {
+        String eTag = vehicleService.getVehiclesByDealerIdETag(dealerId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<VehicleDTO> vehicles = vehicleService.getVehiclesByDealerId(dealerId);
-        return ResponseEntity.ok(vehicles);
+        return ResponseEntity.ok().eTag(eTag).body(vehicles);
     }
     
     @GetMapping("/status/{status}")
@@ -70,15 +101,42 @@ public class VehicleController {
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search vehicles by model", description = "Search vehicles by model name")
+    @Operation(summary = "Search vehicles by model", description = "Search vehicles whose model name contains the given text")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved matching vehicles")
     public ResponseEntity<List<VehicleDTO>> searchVehiclesByModel(
             @Parameter(description = "Model name to search for") 
-            @RequestParam String model) {
-        List<VehicleDTO> vehicles = vehicleService.searchVehiclesByModel(model);
+            @RequestParam String model,
+            @Parameter(description = "Match regardless of letter case")
+            @RequestParam(defaultValue = "false") boolean ignoreCase,
+            @Parameter(description = "Order by match quality (exact, prefix, word start) instead of ID")
+            @RequestParam(defaultValue = "false") boolean ranked,
+            @Parameter(description = "Maximum number of vehicles to return (1-500); all matches when omitted")
+            @RequestParam(required = false) Integer limit) {
+        List<VehicleDTO> vehicles = vehicleService.searchVehiclesByModel(model, ignoreCase, ranked, limit);
         return ResponseEntity.ok(vehicles);
     }
     
+    @GetMapping("/query")
+    @Operation(summary = "Query vehicles", description = "Filter vehicles by any mix of dealer, status, price range, model and dealer subscription type, with facet counts")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved matching vehicles")
+    @ApiResponse(responseCode = "400", description = "Invalid filter or cursor")
+    public ResponseEntity<VehicleQueryResultDTO> queryVehicles(
+            @Parameter(description = "Dealer ID") @RequestParam(required = false) Long dealerId,
+            @Parameter(description = "Vehicle status (AVAILABLE or SOLD)") @RequestParam(required = false) VehicleStatus status,
+            @Parameter(description = "Minimum price (inclusive)") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price (inclusive)") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Text the model name must contain (case-insensitive)") @RequestParam(required = false) String model,
+            @Parameter(description = "Dealer subscription type (BASIC or PREMIUM)")
+            @RequestParam(required = false) SubscriptionType subscriptionType,
+            @Parameter(description = "Maximum number of vehicles to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) String after) {
+        VehicleQueryResultDTO result = vehicleService.queryVehicles(
+            dealerId, status, minPrice, maxPrice, model, subscriptionType, limit, after);
+        return ResponseEntity.ok(result);
+    }
+    
     @PostMapping
     @Operation(summary = "Create a new vehicle", description = "Create a new vehicle")
     @ApiResponse(responseCode = "201", description = "Vehicle created successfully")
@@ -92,6 +150,17 @@ public class VehicleController {
         }
     }
     
+    @PostMapping("/bulk")
+    @Operation(summary = "Create vehicles in bulk", description = "Create up to 20000 vehicles in one request; invalid rows are reported individually and do not stop the rest")
+    @ApiResponse(responseCode = "201", description = "All vehicles created")
+    @ApiResponse(responseCode = "207", description = "Some vehicles failed; see the error of each item")
+    @ApiResponse(responseCode = "400", description = "Too many vehicles in one request")
+    public ResponseEntity<BulkResultDTO> bulkCreateVehicles(@RequestBody List<VehicleDTO> vehicleDTOs) {
+        BulkResultDTO result = vehicleService.bulkCreateVehicles(vehicleDTOs);
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Update vehicle", description = "Update an existing vehicle")
     @ApiResponse(responseCode = "200", description = "Vehicle updated successfully")
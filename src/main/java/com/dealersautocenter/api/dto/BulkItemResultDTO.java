@@ -0,0 +1,49 @@
+package com.dealersautocenter.api.dto;
+
+public class BulkItemResultDTO {
+    
+    private int index;
+    private Long id;
+    private String error;
+    
+    public BulkItemResultDTO() {}
+    
+    public BulkItemResultDTO(int index, Long id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+    
+    public static BulkItemResultDTO created(int index, Long id) {
+        return new BulkItemResultDTO(index, id, null);
+    }
+    
+    public static BulkItemResultDTO failed(int index, String error) {
+        return new BulkItemResultDTO(index, null, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
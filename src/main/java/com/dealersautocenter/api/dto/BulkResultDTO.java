@@ -0,0 +1,45 @@
+package com.dealersautocenter.api.dto;
+
+import java.util.List;
+
+public class BulkResultDTO {
+    
+    private int created;
+    private int failed;
+    
+    // One entry per submitted row, in submission order
+    private List<BulkItemResultDTO> items;
+    
+    public BulkResultDTO() {}
+    
+    public BulkResultDTO(List<BulkItemResultDTO> items) {
+        this.items = items;
+        this.failed = (int) items.stream().filter(item -> item.getError() != null).count();
+        this.created = items.size() - failed;
+    }
+    
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<BulkItemResultDTO> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<BulkItemResultDTO> items) {
+        this.items = items;
+    }
+}
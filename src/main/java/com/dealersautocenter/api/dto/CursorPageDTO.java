@@ -0,0 +1,64 @@
+package com.dealersautocenter.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPageDTO<T> {
+    
+    private List<T> items;
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor;
+    
+    public CursorPageDTO() {}
+    
+    public CursorPageDTO(List<T> items, int limit, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.limit = limit;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+    
+    /**
+     * Builds a page from rows fetched with limit + 1; the extra row only signals that another page exists.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, limit, hasMore, nextCursor);
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
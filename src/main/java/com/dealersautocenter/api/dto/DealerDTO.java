@@ -1,9 +1,11 @@
 package com.dealersautocenter.api.dto;
 
 import com.dealersautocenter.api.entity.SubscriptionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 public class DealerDTO {
     
@@ -19,6 +21,10 @@ public class DealerDTO {
     @NotNull(message = "Subscription type is required")
     private SubscriptionType subscriptionType;
     
+    // Version for conditional GETs; not part of the API payload
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+    
     public DealerDTO() {}
     
     public DealerDTO(Long id, String name, String email, SubscriptionType subscriptionType) {
@@ -60,4 +66,12 @@ public class DealerDTO {
     public void setSubscriptionType(SubscriptionType subscriptionType) {
         this.subscriptionType = subscriptionType;
     }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
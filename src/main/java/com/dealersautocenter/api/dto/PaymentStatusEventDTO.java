@@ -0,0 +1,82 @@
+package com.dealersautocenter.api.dto;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+public class PaymentStatusEventDTO {
+    
+    private Long paymentId;
+    private Long dealerId;
+    private String transactionId;
+    private PaymentStatus previousStatus;
+    private PaymentStatus status;
+    private LocalDateTime occurredAt;
+    
+    public PaymentStatusEventDTO() {}
+    
+    public PaymentStatusEventDTO(Long paymentId, Long dealerId, String transactionId, PaymentStatus previousStatus,
+                                 PaymentStatus status, LocalDateTime occurredAt) {
+        this.paymentId = paymentId;
+        this.dealerId = dealerId;
+        this.transactionId = transactionId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.occurredAt = occurredAt;
+    }
+    
+    public static PaymentStatusEventDTO of(Payment payment, PaymentStatus previousStatus, PaymentStatus status,
+                                           LocalDateTime occurredAt) {
+        return new PaymentStatusEventDTO(payment.getId(), payment.getDealerId(), payment.getTransactionId(),
+                previousStatus, status, occurredAt);
+    }
+    
+    // Getters and Setters
+    public Long getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public Long getDealerId() {
+        return dealerId;
+    }
+    
+    public void setDealerId(Long dealerId) {
+        this.dealerId = dealerId;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public PaymentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(PaymentStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,107 @@
+package com.dealersautocenter.api.dto;
+
+import com.dealersautocenter.api.entity.SubscriptionType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PaymentSummaryDTO {
+    
+    private Long dealerId;
+    private String dealerName;
+    private SubscriptionType subscriptionType;
+    private long totalCount;
+    private BigDecimal totalAmount;
+    private long successCount;
+    private long failedCount;
+    private long pendingCount;
+    private LocalDateTime updatedAt;
+    
+    public PaymentSummaryDTO() {}
+    
+    public PaymentSummaryDTO(Long dealerId, String dealerName, SubscriptionType subscriptionType, long totalCount,
+                             BigDecimal totalAmount, long successCount, long failedCount, long pendingCount,
+                             LocalDateTime updatedAt) {
+        this.dealerId = dealerId;
+        this.dealerName = dealerName;
+        this.subscriptionType = subscriptionType;
+        this.totalCount = totalCount;
+        this.totalAmount = totalAmount;
+        this.successCount = successCount;
+        this.failedCount = failedCount;
+        this.pendingCount = pendingCount;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getDealerId() {
+        return dealerId;
+    }
+    
+    public void setDealerId(Long dealerId) {
+        this.dealerId = dealerId;
+    }
+    
+    public String getDealerName() {
+        return dealerName;
+    }
+    
+    public void setDealerName(String dealerName) {
+        this.dealerName = dealerName;
+    }
+    
+    public SubscriptionType getSubscriptionType() {
+        return subscriptionType;
+    }
+    
+    public void setSubscriptionType(SubscriptionType subscriptionType) {
+        this.subscriptionType = subscriptionType;
+    }
+    
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public long getSuccessCount() {
+        return successCount;
+    }
+    
+    public void setSuccessCount(long successCount) {
+        this.successCount = successCount;
+    }
+    
+    public long getFailedCount() {
+        return failedCount;
+    }
+    
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+    
+    public long getPendingCount() {
+        return pendingCount;
+    }
+    
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -36,6 +36,13 @@ public class VehicleDTO {
         this.status = status;
     }
     
+    public VehicleDTO(Long id, Long dealerId, String model, BigDecimal price, VehicleStatus status,
+                      String dealerName, String dealerEmail) {
+        this(id, dealerId, model, price, status);
+        this.dealerName = dealerName;
+        this.dealerEmail = dealerEmail;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,48 @@
+package com.dealersautocenter.api.dto;
+
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import java.util.Map;
+
+public class VehicleQueryResultDTO extends CursorPageDTO<VehicleDTO> {
+    
+    private long totalCount;
+    private Map<VehicleStatus, Long> statusCounts;
+    private Map<SubscriptionType, Long> subscriptionTypeCounts;
+    
+    public VehicleQueryResultDTO() {}
+    
+    public VehicleQueryResultDTO(CursorPageDTO<VehicleDTO> page, long totalCount,
+                                 Map<VehicleStatus, Long> statusCounts,
+                                 Map<SubscriptionType, Long> subscriptionTypeCounts) {
+        super(page.getItems(), page.getLimit(), page.isHasMore(), page.getNextCursor());
+        this.totalCount = totalCount;
+        this.statusCounts = statusCounts;
+        this.subscriptionTypeCounts = subscriptionTypeCounts;
+    }
+    
+    // Getters and Setters
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public Map<VehicleStatus, Long> getStatusCounts() {
+        return statusCounts;
+    }
+    
+    public void setStatusCounts(Map<VehicleStatus, Long> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+    
+    public Map<SubscriptionType, Long> getSubscriptionTypeCounts() {
+        return subscriptionTypeCounts;
+    }
+    
+    public void setSubscriptionTypeCounts(Map<SubscriptionType, Long> subscriptionTypeCounts) {
+        this.subscriptionTypeCounts = subscriptionTypeCounts;
+    }
+}
@@ -4,15 +4,24 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.dealersautocenter.api.id.SnowflakeTransactionIdGenerator;
+import com.dealersautocenter.api.id.TransactionIdGenerator;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_created_at_id", columnList = "created_at, id")
+})
 public class Payment {
     
+    // Replaced at startup by the configured node's generator (see TransactionIdConfig)
+    private static volatile TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(0);
+    
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_id_seq")
+    @SequenceGenerator(name = "payments_id_seq", sequenceName = "payments_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Dealer ID is required")
@@ -37,12 +46,28 @@ public class Payment {
     @Column(name = "transaction_id")
     private String transactionId;
     
+    // Client-supplied Idempotency-Key of the initiate request that created this payment, prefixed with the
+    // caller's JWT subject ("subject:key") so keys from different callers never collide
+    @Column(name = "idempotency_key", unique = true, length = 512)
+    private String idempotencyKey;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Set while a sweep or the settlement scheduler charges this payment outside a transaction; both skip it
+    // until then
+    @Column(name = "sweep_lease_until")
+    private LocalDateTime sweepLeaseUntil;
+    
+    // Bumped on every write, including the conditional status updates in PaymentRepository. The default lets
+    // ddl-auto=update add the column to a payments table that already has rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dealer_id", insertable = false, updatable = false)
     @JsonIgnore
@@ -59,13 +84,21 @@ public class Payment {
     }
     
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + (int)(Math.random() * 1000);
+        return transactionIdGenerator.nextId();
+    }
+    
+    public static void useTransactionIdGenerator(TransactionIdGenerator generator) {
+        transactionIdGenerator = generator;
     }
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
         if (transactionId == null) {
             transactionId = generateTransactionId();
         }
@@ -125,6 +158,14 @@ public class Payment {
         this.transactionId = transactionId;
     }
     
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -141,6 +182,22 @@ public class Payment {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getSweepLeaseUntil() {
+        return sweepLeaseUntil;
+    }
+    
+    public void setSweepLeaseUntil(LocalDateTime sweepLeaseUntil) {
+        this.sweepLeaseUntil = sweepLeaseUntil;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Dealer getDealer() {
         return dealer;
     }
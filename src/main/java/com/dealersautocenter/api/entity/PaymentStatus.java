@@ -1,7 +1,26 @@
 package com.dealersautocenter.api.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING,
     SUCCESS,
-    FAILED
+    FAILED;
+    
+    /**
+     * The statuses a payment in this status may move to: a pending payment settles either way,
+     * a failed one may be retried, and a successful one is final.
+     */
+    public Set<PaymentStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(SUCCESS, FAILED);
+            case FAILED -> EnumSet.of(PENDING);
+            case SUCCESS -> EnumSet.noneOf(PaymentStatus.class);
+        };
+    }
+    
+    public boolean canTransitionTo(PaymentStatus next) {
+        return nextStatuses().contains(next);
+    }
 }
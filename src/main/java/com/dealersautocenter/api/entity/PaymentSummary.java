@@ -0,0 +1,100 @@
+package com.dealersautocenter.api.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running per-dealer payment totals, adjusted in the same transaction as every payment insert and status change
+ * so {@code GET /api/payment/summary} never has to aggregate the payments table.
+ */
+@Entity
+@Table(name = "payment_summaries")
+public class PaymentSummary {
+    
+    @Id
+    @Column(name = "dealer_id")
+    private Long dealerId;
+    
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+    
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "success_count", nullable = false)
+    private long successCount;
+    
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+    
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public PaymentSummary() {}
+    
+    public PaymentSummary(Long dealerId) {
+        this.dealerId = dealerId;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getDealerId() {
+        return dealerId;
+    }
+    
+    public void setDealerId(Long dealerId) {
+        this.dealerId = dealerId;
+    }
+    
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public long getSuccessCount() {
+        return successCount;
+    }
+    
+    public void setSuccessCount(long successCount) {
+        this.successCount = successCount;
+    }
+    
+    public long getFailedCount() {
+        return failedCount;
+    }
+    
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+    
+    public long getPendingCount() {
+        return pendingCount;
+    }
+    
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown instead of calling the payment gateway while its circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends PaymentGatewayException {
+    
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
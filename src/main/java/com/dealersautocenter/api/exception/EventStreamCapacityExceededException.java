@@ -0,0 +1,12 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown when opening another payment status stream would exceed the global or per-dealer limit,
+ * so the client is asked to retry later instead of the open streams growing without bound.
+ */
+public class EventStreamCapacityExceededException extends RuntimeException {
+    
+    public EventStreamCapacityExceededException(String message) {
+        super(message);
+    }
+}
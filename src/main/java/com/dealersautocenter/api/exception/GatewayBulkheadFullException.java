@@ -0,0 +1,12 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown when a payment method already has as many gateway calls in flight as its bulkhead allows.
+ * The call was never made, so it is safe to retry shortly.
+ */
+public class GatewayBulkheadFullException extends PaymentGatewayException {
+    
+    public GatewayBulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown when an Idempotency-Key is replayed with a request that differs from the one it was first used for.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
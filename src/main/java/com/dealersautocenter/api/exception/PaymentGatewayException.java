@@ -0,0 +1,16 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * The payment gateway could not give an outcome (error, timeout, or the call was not attempted).
+ * The payment stays PENDING and is retried later; a declined charge is an outcome, not this exception.
+ */
+public class PaymentGatewayException extends RuntimeException {
+    
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+    
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
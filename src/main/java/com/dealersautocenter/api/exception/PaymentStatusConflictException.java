@@ -0,0 +1,12 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown when a payment cannot move to the requested status, either because the transition is not allowed
+ * or because another writer changed the payment first.
+ */
+public class PaymentStatusConflictException extends RuntimeException {
+    
+    public PaymentStatusConflictException(String message) {
+        super(message);
+    }
+}
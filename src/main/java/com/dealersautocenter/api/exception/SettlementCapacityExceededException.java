@@ -0,0 +1,12 @@
+package com.dealersautocenter.api.exception;
+
+/**
+ * Thrown when the payment settlement scheduler already holds as many payments as it allows,
+ * so callers can ask clients to retry later instead of queueing without bound.
+ */
+public class SettlementCapacityExceededException extends RuntimeException {
+    
+    public SettlementCapacityExceededException(String message) {
+        super(message);
+    }
+}
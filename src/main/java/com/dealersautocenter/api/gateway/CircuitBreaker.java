@@ -0,0 +1,146 @@
+package com.dealersautocenter.api.gateway;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * While CLOSED it tracks the outcome of the last {@code windowSize} calls and opens once at least
+ * {@code minimumCalls} have been recorded and the failure rate reaches {@code failureRateThreshold} percent.
+ * OPEN rejects calls for {@code openMillis}, then HALF_OPEN lets {@code halfOpenCalls} trial calls through:
+ * all of them succeeding closes the breaker again, any failure re-opens it.
+ *
+ * State is guarded by a {@link ReentrantLock} rather than {@code synchronized}, so virtual threads that
+ * contend for it park instead of pinning their carrier thread.
+ */
+public class CircuitBreaker {
+    
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Ring buffer of recent outcomes while CLOSED; true = failure
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    
+    public CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openMillis,
+                          int halfOpenCalls) {
+        this(failureRateThreshold, windowSize, minimumCalls, openMillis, halfOpenCalls, System::currentTimeMillis);
+    }
+    
+    CircuitBreaker(double failureRateThreshold, int windowSize, int minimumCalls, long openMillis,
+                   int halfOpenCalls, LongSupplier clock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+    
+    /**
+     * Returns whether a call may proceed; a permitted call must be followed by {@link #onSuccess} or {@link #onFailure}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++halfOpenSuccesses == halfOpenCalls) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCount >= minimumCalls && windowFailures * 100.0 >= failureRateThreshold * windowCount) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+    
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+    
+    private void close() {
+        state = State.CLOSED;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.dealersautocenter.api.gateway;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges a pending payment with the external payment provider.
+ *
+ * The returned future completes with {@link PaymentStatus#SUCCESS} or {@link PaymentStatus#FAILED} (declined), or
+ * exceptionally with a {@link com.dealersautocenter.api.exception.PaymentGatewayException} when no outcome is known.
+ * Implementations must not block the caller for the duration of the call, and should pass the payment's
+ * transaction id to the provider so a retried charge is not taken twice.
+ */
+public interface PaymentGateway extends AutoCloseable {
+    
+    CompletableFuture<PaymentStatus> charge(Payment payment);
+    
+    @Override
+    default void close() {
+    }
+}
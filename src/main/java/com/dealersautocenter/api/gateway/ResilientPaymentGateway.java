@@ -0,0 +1,170 @@
+package com.dealersautocenter.api.gateway;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.CircuitBreakerOpenException;
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import com.dealersautocenter.api.exception.PaymentGatewayException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps a {@link PaymentGateway} with a bulkhead per {@link PaymentMethod}, a shared circuit breaker and a call
+ * timeout.
+ *
+ * The bulkhead caps concurrent calls per method, so a provider that slows down for one method (e.g. NETBANKING)
+ * can't take every call slot; a caller waits at most {@code maxWaitMillis} for a slot before getting
+ * {@link GatewayBulkheadFullException}. Errors and timeouts count against the breaker; declines do not. Results are
+ * handed back on a small callback pool so the work callers chain onto them (database updates) never runs on the
+ * delegate's I/O or timer threads.
+ */
+public class ResilientPaymentGateway implements PaymentGateway {
+    
+    private final PaymentGateway delegate;
+    private final long timeoutMillis;
+    private final long maxWaitMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<PaymentMethod, Semaphore> bulkheads = new EnumMap<>(PaymentMethod.class);
+    private final ExecutorService callbacks;
+    
+    private final Counter approved;
+    private final Counter declined;
+    private final Counter errors;
+    private final Counter timeouts;
+    private final Counter bulkheadRejected;
+    private final Counter shortCircuited;
+    
+    public ResilientPaymentGateway(PaymentGateway delegate, long timeoutMillis, int maxConcurrentPerMethod,
+                                   long maxWaitMillis, CircuitBreaker circuitBreaker, int callbackThreads,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.circuitBreaker = circuitBreaker;
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.callbacks = Executors.newFixedThreadPool(callbackThreads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-callback-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (PaymentMethod method : PaymentMethod.values()) {
+            Semaphore bulkhead = new Semaphore(maxConcurrentPerMethod);
+            bulkheads.put(method, bulkhead);
+            Gauge.builder("payments.gateway.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tag("method", method.name())
+                    .description("Free gateway call slots for the payment method")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("payments.gateway.circuit_breaker.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the gateway circuit breaker is open or half-open")
+                .register(meterRegistry);
+        this.approved = calls(meterRegistry, "approved");
+        this.declined = calls(meterRegistry, "declined");
+        this.errors = calls(meterRegistry, "error");
+        this.timeouts = calls(meterRegistry, "timeout");
+        this.bulkheadRejected = calls(meterRegistry, "bulkhead_full");
+        this.shortCircuited = calls(meterRegistry, "short_circuited");
+    }
+    
+    @Override
+    public CompletableFuture<PaymentStatus> charge(Payment payment) {
+        Semaphore bulkhead = bulkheads.get(payment.getPaymentMethod());
+        if (!acquire(bulkhead)) {
+            bulkheadRejected.increment();
+            return CompletableFuture.failedFuture(new GatewayBulkheadFullException(
+                    "Too many " + payment.getPaymentMethod() + " gateway calls in flight"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            shortCircuited.increment();
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException("Payment gateway circuit is open"));
+        }
+        
+        CompletableFuture<PaymentStatus> call;
+        try {
+            call = delegate.charge(payment);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<PaymentStatus> result = new CompletableFuture<>();
+        call.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((status, error) -> {
+            bulkhead.release();
+            Throwable failure = error == null ? null : unwrap(error);
+            if (failure == null) {
+                circuitBreaker.onSuccess();
+                (status == PaymentStatus.SUCCESS ? approved : declined).increment();
+            } else {
+                circuitBreaker.onFailure();
+                if (failure instanceof TimeoutException) {
+                    timeouts.increment();
+                    failure = new PaymentGatewayException("Payment gateway timed out after " + timeoutMillis + " ms");
+                } else {
+                    errors.increment();
+                }
+            }
+            Throwable outcome = failure;
+            try {
+                callbacks.execute(() -> complete(result, status, outcome));
+            } catch (RejectedExecutionException e) {
+                complete(result, status, outcome);
+            }
+        });
+        return result;
+    }
+    
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+    
+    public int availableCalls(PaymentMethod method) {
+        return bulkheads.get(method).availablePermits();
+    }
+    
+    @Override
+    public void close() {
+        callbacks.shutdown();
+        delegate.close();
+    }
+    
+    private boolean acquire(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private static void complete(CompletableFuture<PaymentStatus> result, PaymentStatus status, Throwable failure) {
+        if (failure == null) {
+            result.complete(status);
+        } else {
+            result.completeExceptionally(failure);
+        }
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    private static Counter calls(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("payments.gateway.calls")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
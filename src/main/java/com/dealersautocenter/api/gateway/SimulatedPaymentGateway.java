@@ -0,0 +1,79 @@
+package com.dealersautocenter.api.gateway;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.PaymentGatewayException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for the payment provider, used for local runs and offline load tests.
+ *
+ * Latency follows a log-normal distribution fitted to the configured median and p99. Each call is approved with
+ * {@code successRate} and otherwise declined; independently, {@code errorRate} of calls fail with a gateway error
+ * and {@code timeoutRate} never answer, leaving the caller's timeout to fire. Responses are delivered from a single
+ * timer thread, so thousands of calls can be in flight without a thread each.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double P99_Z = 2.326;
+    
+    private final double successRate;
+    private final double errorRate;
+    private final double timeoutRate;
+    private final double logMedian;
+    private final double sigma;
+    private final ScheduledExecutorService timer;
+    
+    public SimulatedPaymentGateway(double successRate, long latencyMedianMillis, long latencyP99Millis,
+                                   double errorRate, double timeoutRate) {
+        if (latencyP99Millis < latencyMedianMillis) {
+            throw new IllegalArgumentException("Latency p99 must not be below the median");
+        }
+        this.successRate = successRate;
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.logMedian = latencyMedianMillis > 0 ? Math.log(latencyMedianMillis) : Double.NEGATIVE_INFINITY;
+        this.sigma = latencyMedianMillis > 0 ? Math.log((double) latencyP99Millis / latencyMedianMillis) / P99_Z : 0;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<PaymentStatus> charge(Payment payment) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<PaymentStatus> response = new CompletableFuture<>();
+        if (random.nextDouble() < timeoutRate) {
+            return response;
+        }
+        boolean error = random.nextDouble() < errorRate;
+        PaymentStatus outcome = random.nextDouble() < successRate ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
+        long latencyMicros = (long) (Math.exp(logMedian + sigma * random.nextGaussian()) * 1000);
+        try {
+            timer.schedule(() -> {
+                if (error) {
+                    response.completeExceptionally(new PaymentGatewayException(
+                            "Simulated gateway error for " + payment.getTransactionId()));
+                } else {
+                    response.complete(outcome);
+                }
+            }, latencyMicros, TimeUnit.MICROSECONDS);
+        } catch (RejectedExecutionException e) {
+            response.completeExceptionally(new PaymentGatewayException("Simulated gateway is shut down", e));
+        }
+        return response;
+    }
+    
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,90 @@
+package com.dealersautocenter.api.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node id and a
+ * 12-bit per-millisecond sequence, rendered as {@code "TXN"} plus 13 zero-padded base-36 digits so that string
+ * order matches numeric order.
+ *
+ * The timestamp and sequence are packed into one {@link AtomicLong} and advanced with a CAS loop, so callers never
+ * block. When a millisecond's 4096 sequence values run out, or the wall clock steps backwards, the generator keeps
+ * counting on its own logical clock instead of waiting for the wall clock to catch up; ids stay unique and
+ * increasing either way.
+ */
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+    
+    public static final String PREFIX = "TXN";
+    
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds from here last until 2093
+    public static final long EPOCH_MILLIS = 1704067200000L;
+    
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final int ENCODED_LENGTH = 13;
+    
+    private final long nodeBits;
+    private final LongSupplier clock;
+    
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+    
+    public SnowflakeTransactionIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    SnowflakeTransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+    
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+    
+    public long nextLong() {
+        while (true) {
+            long previous = state.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next;
+            if (now > previous >>> SEQUENCE_BITS) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock went backwards: keep counting from the last logical time.
+                // An exhausted sequence rolls over into the next millisecond.
+                next = previous + 1;
+            }
+            if (state.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    public int getNodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+    
+    public static String encode(long id) {
+        String digits = Long.toString(id, Character.MAX_RADIX);
+        StringBuilder encoded = new StringBuilder(PREFIX.length() + ENCODED_LENGTH).append(PREFIX);
+        for (int i = digits.length(); i < ENCODED_LENGTH; i++) {
+            encoded.append('0');
+        }
+        return encoded.append(digits).toString();
+    }
+    
+    public static long decode(String transactionId) {
+        if (transactionId == null || !transactionId.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Not a transaction id: " + transactionId);
+        }
+        return Long.parseLong(transactionId.substring(PREFIX.length()), Character.MAX_RADIX);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dealersautocenter.api.id;
+
+/**
+ * Source of payment transaction ids. Implementations must be thread-safe and must never hand out the same id twice,
+ * including across application nodes sharing one database.
+ */
+@FunctionalInterface
+public interface TransactionIdGenerator {
+    
+    String nextId();
+}
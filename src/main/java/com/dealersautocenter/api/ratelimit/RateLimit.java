@@ -0,0 +1,18 @@
+package com.dealersautocenter.api.ratelimit;
+
+/**
+ * A sustained rate with a burst allowance, kept in the nanosecond form {@link TokenBucket} works with.
+ *
+ * @param intervalNanos  time for one token to refill
+ * @param toleranceNanos how far ahead of the sustained rate a client may run, i.e. {@code burst} intervals
+ */
+public record RateLimit(long intervalNanos, long toleranceNanos) {
+    
+    public static RateLimit of(double requestsPerSecond, int burst) {
+        if (requestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        long interval = Math.max(1, Math.round(1_000_000_000d / requestsPerSecond));
+        return new RateLimit(interval, interval * burst);
+    }
+}
@@ -0,0 +1,74 @@
+package com.dealersautocenter.api.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed {@link TokenBucket}s with a bounded footprint.
+ *
+ * Looking up an existing bucket and taking a token are lock-free. When {@code maxBuckets} is reached, full
+ * (idle) buckets are dropped, at most once per sweep interval; if every bucket is still active, new keys share
+ * one overflow bucket, so a flood of distinct clients is shed together instead of growing the map.
+ */
+public class RateLimiter {
+    
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    
+    private final int maxBuckets;
+    private final LongSupplier clock;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastSweep;
+    
+    public RateLimiter(int maxBuckets) {
+        this(maxBuckets, System::nanoTime);
+    }
+    
+    public RateLimiter(int maxBuckets, LongSupplier clock) {
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("maxBuckets must be positive");
+        }
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.overflow = new TokenBucket(now);
+        this.lastSweep = new AtomicLong(now - SWEEP_INTERVAL_NANOS);
+    }
+    
+    /**
+     * Takes one token from {@code key}'s bucket; returns 0 on success, otherwise the nanoseconds to wait.
+     */
+    public long tryAcquire(String key, RateLimit limit) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = bucketFor(key, now);
+        }
+        return bucket.tryAcquire(limit, now);
+    }
+    
+    public int size() {
+        return buckets.size();
+    }
+    
+    private TokenBucket bucketFor(String key, long now) {
+        if (buckets.size() >= maxBuckets) {
+            evictFull(now);
+            if (buckets.size() >= maxBuckets) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+    
+    private void evictFull(long now) {
+        long previous = lastSweep.get();
+        if (now - previous < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+        // A token taken from a bucket while it is being dropped is forgiven; the bucket was full anyway
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,39 @@
+package com.dealersautocenter.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single "theoretical arrival time" (the generic cell rate algorithm), so taking a
+ * token is one compare-and-set and the bucket never needs a lock or a refill task.
+ *
+ * A bucket whose arrival time is not ahead of the clock is full, and therefore interchangeable with a new one.
+ */
+public final class TokenBucket {
+    
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+    
+    /**
+     * Takes one token under {@code limit}; returns 0 on success, otherwise the nanoseconds until one is free.
+     */
+    public long tryAcquire(RateLimit limit, long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + limit.intervalNanos();
+            long ahead = next - nowNanos;
+            if (ahead > limit.toleranceNanos()) {
+                return ahead - limit.toleranceNanos();
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
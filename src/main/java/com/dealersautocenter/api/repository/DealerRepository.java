@@ -2,9 +2,13 @@ package com.dealersautocenter.api.repository;
 
 import com.dealersautocenter.api.entity.Dealer;
 import com.dealersautocenter.api.entity.SubscriptionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +23,18 @@ public interface DealerRepository extends JpaRepository<Dealer, Long> {
     List<Dealer> findDealersBySubscriptionType(SubscriptionType subscriptionType);
     
     boolean existsByEmail(String email);
+    
+    List<Dealer> findAllByOrderByIdAsc(Pageable pageable);
+    
+    List<Dealer> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    @Query("SELECT d.id FROM Dealer d ORDER BY d.id")
+    List<Long> findAllIds();
+    
+    @Query("SELECT d.id FROM Dealer d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // The dealer's version for its ETag, read from the primary rather than the node-local DealerCache
+    @Query("SELECT d.updatedAt FROM Dealer d WHERE d.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
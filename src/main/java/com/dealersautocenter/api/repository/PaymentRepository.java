@@ -3,13 +3,24 @@ package com.dealersautocenter.api.repository;
 import com.dealersautocenter.api.entity.Payment;
 import com.dealersautocenter.api.entity.PaymentStatus;
 import com.dealersautocenter.api.entity.PaymentMethod;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -22,8 +33,87 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     Optional<Payment> findByTransactionId(String transactionId);
     
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    
     List<Payment> findByDealerIdAndStatus(Long dealerId, PaymentStatus status);
     
+    // One row of [count, sum(amount), pending, success, failed] for a dealer; used to rebuild payment_summaries
+    @Query("SELECT COUNT(p.id), COALESCE(SUM(p.amount), 0), " +
+           "COALESCE(SUM(CASE WHEN p.status = 'PENDING' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN p.status = 'SUCCESS' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN p.status = 'FAILED' THEN 1 ELSE 0 END), 0) " +
+           "FROM Payment p WHERE p.dealerId = :dealerId")
+    List<Object[]> summarizeByDealerId(@Param("dealerId") Long dealerId);
+    
     @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' AND p.createdAt <= :fiveSecondsAgo")
     List<Payment> findPendingPaymentsOlderThanFiveSeconds(@Param("fiveSecondsAgo") LocalDateTime fiveSecondsAgo);
+    
+    // Locks a page of pending payments untouched since updatedBefore (a retried payment counts from its move
+    // back to PENDING) that nobody holds a lease on; rows already locked by another node are skipped
+    // (lock timeout -2 renders FOR UPDATE SKIP LOCKED where the database supports it)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' AND p.updatedAt <= :updatedBefore " +
+           "AND (p.sweepLeaseUntil IS NULL OR p.sweepLeaseUntil < :now) ORDER BY p.updatedAt")
+    List<Payment> claimPendingPayments(@Param("updatedBefore") LocalDateTime updatedBefore,
+                                       @Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Keeps claimed payments away from other sweeps once the claiming transaction has released their locks
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.sweepLeaseUntil = :leaseUntil WHERE p.id IN :ids")
+    int leaseForSweep(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    // Hands leased payments the gateway never saw back to the next sweep instead of waiting out the lease
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.sweepLeaseUntil = NULL WHERE p.id IN :ids AND p.status = 'PENDING'")
+    int releaseSweepLease(@Param("ids") Collection<Long> ids);
+    
+    // Claims one pending payment for the settlement scheduler unless a sweep or another node holds a live
+    // lease on it; 0 means the payment is not this caller's to charge
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.sweepLeaseUntil = :leaseUntil WHERE p.id = :id AND p.status = 'PENDING' " +
+           "AND (p.sweepLeaseUntil IS NULL OR p.sweepLeaseUntil < :now)")
+    int leaseForSettlement(@Param("id") Long id, @Param("leaseUntil") LocalDateTime leaseUntil,
+                           @Param("now") LocalDateTime now);
+    
+    // Locks those of the given payments that are still PENDING, in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id IN :ids AND p.status = 'PENDING' ORDER BY p.id")
+    List<Payment> lockPendingByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Only moves rows that are still PENDING, so a payment settled concurrently is left alone
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :updatedAt, p.sweepLeaseUntil = NULL, " +
+           "p.version = p.version + 1 WHERE p.id IN :ids AND p.status = 'PENDING'")
+    int settlePending(@Param("ids") Collection<Long> ids, @Param("status") PaymentStatus status,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Compare-and-set: moves the payment only if it is still the version (and status) the caller read, so a
+    // payment that left that status and came back to it meanwhile is not overwritten; 0 means it was not
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.updatedAt = :updatedAt, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.status = :from AND p.version = :version")
+    int transition(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("version") Long version,
+                   @Param("to") PaymentStatus to, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("SELECT p FROM Payment p ORDER BY p.createdAt, p.id")
+    List<Payment> findPage(Pageable pageable);
+    
+    @Query("SELECT p FROM Payment p WHERE p.createdAt > :createdAt " +
+           "OR (p.createdAt = :createdAt AND p.id > :afterId) ORDER BY p.createdAt, p.id")
+    List<Payment> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("afterId") Long afterId,
+                                Pageable pageable);
+    
+    // Server-side cursor for the NDJSON export; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p ORDER BY p.createdAt, p.id")
+    Stream<Payment> streamAllForExport();
 }
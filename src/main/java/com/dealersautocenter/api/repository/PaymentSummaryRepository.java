@@ -0,0 +1,40 @@
+package com.dealersautocenter.api.repository;
+
+import com.dealersautocenter.api.entity.PaymentSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentSummaryRepository extends JpaRepository<PaymentSummary, Long> {
+    
+    // Relative update, so concurrent writers on the same dealer never overwrite each other
+    @Modifying
+    @Query("UPDATE PaymentSummary s SET s.totalCount = s.totalCount + :count, " +
+           "s.totalAmount = s.totalAmount + :amount, s.pendingCount = s.pendingCount + :pending, " +
+           "s.successCount = s.successCount + :success, s.failedCount = s.failedCount + :failed, " +
+           "s.updatedAt = :updatedAt WHERE s.dealerId = :dealerId")
+    int applyDelta(@Param("dealerId") Long dealerId, @Param("count") long count, @Param("amount") BigDecimal amount,
+                   @Param("pending") long pending, @Param("success") long success, @Param("failed") long failed,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PaymentSummary s WHERE s.dealerId = :dealerId")
+    Optional<PaymentSummary> lockByDealerId(@Param("dealerId") Long dealerId);
+    
+    List<PaymentSummary> findAllByOrderByDealerIdAsc();
+    
+    @Query("SELECT s.dealerId FROM PaymentSummary s WHERE s.dealerId NOT IN (SELECT d.id FROM Dealer d)")
+    List<Long> findOrphanedDealerIds();
+    
+    @Query("SELECT d.id FROM Dealer d WHERE d.id NOT IN (SELECT s.dealerId FROM PaymentSummary s)")
+    List<Long> findDealerIdsWithoutSummary();
+}
@@ -0,0 +1,26 @@
+package com.dealersautocenter.api.repository;
+
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Specification-driven reads that project straight into DTOs, used by the faceted vehicle query.
+ */
+public interface VehicleQueryRepository {
+    
+    /**
+     * Up to {@code limit} matching vehicles with an id above {@code afterId} (or from the first, when it is
+     * {@code null}) in id order, with counts per status and dealer subscription type over every match. The
+     * first page is read in a single statement; a page after a cursor takes a second one for the counts.
+     * Counts of zero are left out of the maps.
+     */
+    VehiclePage findVehiclePage(Specification<Vehicle> specification, Long afterId, int limit);
+    
+    record VehiclePage(List<VehicleDTO> vehicles, long totalCount, Map<VehicleStatus, Long> statusCounts,
+                       Map<SubscriptionType, Long> subscriptionTypeCounts) {}
+}
@@ -0,0 +1,153 @@
+package com.dealersautocenter.api.repository;
+
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaWindow;
+import org.springframework.data.jpa.domain.Specification;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+class VehicleQueryRepositoryImpl implements VehicleQueryRepository {
+    
+    private static final String TOTAL = "total";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * The cursor is a keyset term ({@code id > :afterId}) in the WHERE clause, so a later page is an id range
+     * read through the index instead of a rescan of every earlier match. The facets must still cover every
+     * match, so only the first page reads them in the same statement, as window counts
+     * ({@code COUNT(*) FILTER (WHERE ...) OVER ()}) over the filtered rows; a page after a cursor counts them
+     * with one grouped aggregate over the filter alone.
+     */
+    @Override
+    public VehiclePage findVehiclePage(Specification<Vehicle> specification, Long afterId, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+        Join<Vehicle, Dealer> dealer = VehicleSpecifications.dealer(vehicle);
+        Path<Long> id = vehicle.get("id");
+        
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                id, vehicle.get("dealerId"), vehicle.get("model"), vehicle.get("price"), vehicle.get("status"),
+                dealer.get("name"), dealer.get("email")));
+        boolean withFacets = afterId == null;
+        if (withFacets) {
+            selections.addAll(facetWindowCounts(cb, vehicle, dealer));
+        }
+        query.multiselect(selections);
+        applyWhere(Specification.where(specification).and(VehicleSpecifications.idAfter(afterId)), vehicle, query, cb);
+        query.orderBy(cb.asc(id));
+        
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        
+        List<VehicleDTO> vehicles = new ArrayList<>();
+        for (Tuple row : rows) {
+            vehicles.add(new VehicleDTO(row.get(0, Long.class), row.get(1, Long.class), row.get(2, String.class),
+                    row.get(3, BigDecimal.class), row.get(4, VehicleStatus.class),
+                    row.get(5, String.class), row.get(6, String.class)));
+        }
+        if (!withFacets) {
+            return countFacets(specification, vehicles);
+        }
+        Map<VehicleStatus, Long> statusCounts = new EnumMap<>(VehicleStatus.class);
+        Map<SubscriptionType, Long> subscriptionTypeCounts = new EnumMap<>(SubscriptionType.class);
+        if (rows.isEmpty()) {
+            return new VehiclePage(vehicles, 0, statusCounts, subscriptionTypeCounts);
+        }
+        Tuple facets = rows.get(0);
+        for (VehicleStatus value : VehicleStatus.values()) {
+            putIfPositive(statusCounts, value, facets.get(alias(value), Long.class));
+        }
+        for (SubscriptionType value : SubscriptionType.values()) {
+            putIfPositive(subscriptionTypeCounts, value, facets.get(alias(value), Long.class));
+        }
+        return new VehiclePage(vehicles, facets.get(TOTAL, Long.class), statusCounts, subscriptionTypeCounts);
+    }
+    
+    private List<Selection<?>> facetWindowCounts(HibernateCriteriaBuilder cb, Root<Vehicle> vehicle,
+                                                 Join<Vehicle, Dealer> dealer) {
+        Path<Long> id = vehicle.get("id");
+        Path<VehicleStatus> status = vehicle.get("status");
+        Path<SubscriptionType> subscriptionType = dealer.get("subscriptionType");
+        JpaWindow everyMatch = cb.createWindow();
+        
+        List<Selection<?>> counts = new ArrayList<>();
+        counts.add(cb.count(id, everyMatch).alias(TOTAL));
+        for (VehicleStatus value : VehicleStatus.values()) {
+            counts.add(cb.count(id, cb.equal(status, value), everyMatch).alias(alias(value)));
+        }
+        for (SubscriptionType value : SubscriptionType.values()) {
+            counts.add(cb.count(id, cb.equal(subscriptionType, value), everyMatch).alias(alias(value)));
+        }
+        return counts;
+    }
+    
+    // One row per status and subscription type pair, so at most a handful whatever the number of matches
+    private VehiclePage countFacets(Specification<Vehicle> specification, List<VehicleDTO> vehicles) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+        Join<Vehicle, Dealer> dealer = VehicleSpecifications.dealer(vehicle);
+        Path<VehicleStatus> status = vehicle.get("status");
+        Path<SubscriptionType> subscriptionType = dealer.get("subscriptionType");
+        
+        query.multiselect(status, subscriptionType, cb.count(vehicle.get("id")));
+        applyWhere(specification, vehicle, query, cb);
+        query.groupBy(status, subscriptionType);
+        
+        long total = 0;
+        Map<VehicleStatus, Long> statusCounts = new EnumMap<>(VehicleStatus.class);
+        Map<SubscriptionType, Long> subscriptionTypeCounts = new EnumMap<>(SubscriptionType.class);
+        for (Tuple group : entityManager.createQuery(query).getResultList()) {
+            long count = group.get(2, Long.class);
+            total += count;
+            if (group.get(0) != null) {
+                statusCounts.merge(group.get(0, VehicleStatus.class), count, Long::sum);
+            }
+            if (group.get(1) != null) {
+                subscriptionTypeCounts.merge(group.get(1, SubscriptionType.class), count, Long::sum);
+            }
+        }
+        return new VehiclePage(vehicles, total, statusCounts, subscriptionTypeCounts);
+    }
+    
+    private static void applyWhere(Specification<Vehicle> specification, Root<Vehicle> root,
+                                   CriteriaQuery<?> query, HibernateCriteriaBuilder cb) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+    
+    private static String alias(Enum<?> value) {
+        return value.getDeclaringClass().getSimpleName() + "_" + value.name();
+    }
+    
+    private static <K> void putIfPositive(Map<K, Long> counts, K key, Long count) {
+        if (count != null && count > 0) {
+            counts.put(key, count);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.dealersautocenter.api.repository;
 
+import com.dealersautocenter.api.dto.VehicleDTO;
 import com.dealersautocenter.api.entity.Vehicle;
 import com.dealersautocenter.api.entity.VehicleStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, VehicleQueryRepository {
+    
+    // Read path that fills dealerName/dealerEmail from a single joined query
+    String VEHICLE_DTO_SELECT = "SELECT new com.dealersautocenter.api.dto.VehicleDTO(" +
+           "v.id, v.dealerId, v.model, v.price, v.status, d.name, d.email) " +
+           "FROM Vehicle v LEFT JOIN v.dealer d ";
     
     List<Vehicle> findByDealerId(Long dealerId);
     
@@ -17,13 +30,55 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     
     List<Vehicle> findByDealerIdAndStatus(Long dealerId, VehicleStatus status);
     
-    @Query("SELECT v FROM Vehicle v JOIN v.dealer d WHERE d.subscriptionType = 'PREMIUM'")
-    List<Vehicle> findVehiclesByPremiumDealers();
-    
-    @Query("SELECT v FROM Vehicle v WHERE v.dealerId IN " +
-           "(SELECT d.id FROM Dealer d WHERE d.subscriptionType = 'PREMIUM')")
-    List<Vehicle> findAllVehiclesFromPremiumDealers();
-    
     @Query("SELECT v FROM Vehicle v WHERE v.model LIKE %:model%")
     List<Vehicle> findByModelContaining(@Param("model") String model);
+    
+    @Query(VEHICLE_DTO_SELECT + "ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOPage(Pageable pageable);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.id > :afterId ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.id = :id")
+    Optional<VehicleDTO> findVehicleDTOById(@Param("id") Long id);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.dealerId = :dealerId ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOsByDealerId(@Param("dealerId") Long dealerId);
+    
+    // One row of [count, max(vehicle updatedAt), dealer updatedAt], used as the version of a dealer's vehicle
+    // list (which embeds dealer details); no row when the dealer does not exist
+    @Query("SELECT COUNT(v.id), MAX(v.updatedAt), d.updatedAt FROM Dealer d LEFT JOIN d.vehicles v " +
+           "WHERE d.id = :dealerId GROUP BY d.id, d.updatedAt")
+    List<Object[]> findVehicleListVersionByDealerId(@Param("dealerId") Long dealerId);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.status = :status ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOsByStatus(@Param("status") VehicleStatus status);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.dealerId IN :dealerIds ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOsByDealerIdIn(@Param("dealerIds") Collection<Long> dealerIds);
+    
+    long countByDealerIdIn(Collection<Long> dealerIds);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.model LIKE %:model% ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOsByModelContaining(@Param("model") String model, Pageable pageable);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%')) ORDER BY v.id")
+    List<VehicleDTO> findVehicleDTOsByModelContainingIgnoreCase(@Param("model") String model, Pageable pageable);
+    
+    @Query(VEHICLE_DTO_SELECT + "WHERE v.id IN :ids")
+    List<VehicleDTO> findVehicleDTOsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT v.id FROM Vehicle v WHERE v.dealerId = :dealerId")
+    List<Long> findIdsByDealerId(@Param("dealerId") Long dealerId);
+    
+    @Query("SELECT v.id, v.model FROM Vehicle v WHERE v.id > :afterId ORDER BY v.id")
+    List<Object[]> findIdAndModelPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Server-side cursor for the NDJSON export; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Vehicle v LEFT JOIN FETCH v.dealer ORDER BY v.id")
+    Stream<Vehicle> streamAllForExport();
 }
@@ -0,0 +1,69 @@
+package com.dealersautocenter.api.repository;
+
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Composable filters for the faceted vehicle query. Each returns {@code null} when its
+ * argument is absent, which {@link Specification#and} treats as "no restriction".
+ */
+public final class VehicleSpecifications {
+    
+    private VehicleSpecifications() {}
+    
+    public static Specification<Vehicle> hasDealer(Long dealerId) {
+        return dealerId == null ? null : (root, query, cb) -> cb.equal(root.get("dealerId"), dealerId);
+    }
+    
+    public static Specification<Vehicle> hasStatus(VehicleStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Vehicle> priceAtLeast(BigDecimal minPrice) {
+        return minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+    
+    public static Specification<Vehicle> priceAtMost(BigDecimal maxPrice) {
+        return maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+    
+    public static Specification<Vehicle> modelContains(String model) {
+        return model == null || model.isEmpty() ? null
+                : (root, query, cb) -> cb.like(cb.lower(root.get("model")),
+                        "%" + escapeLike(model.toLowerCase(Locale.ROOT)) + "%", '\\');
+    }
+    
+    public static Specification<Vehicle> dealerSubscription(SubscriptionType subscriptionType) {
+        return subscriptionType == null ? null
+                : (root, query, cb) -> cb.equal(dealer(root).get("subscriptionType"), subscriptionType);
+    }
+    
+    public static Specification<Vehicle> idAfter(Long afterId) {
+        return afterId == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+    
+    /**
+     * Returns the query's dealer join, creating it on first use so that filters and the
+     * projection share a single join.
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Vehicle, Dealer> dealer(Root<Vehicle> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("dealer") && join.getJoinType() == JoinType.LEFT)
+                .map(join -> (Join<Vehicle, Dealer>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("dealer", JoinType.LEFT));
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
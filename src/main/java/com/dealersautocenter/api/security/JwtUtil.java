@@ -1,25 +1,77 @@
 package com.dealersautocenter.api.security;
 
+import com.dealersautocenter.api.cache.BoundedCache;
+import com.dealersautocenter.api.cache.BoundedCacheMetrics;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the API's HS256 tokens.
+ *
+ * The signing key and parser are built once. Verified tokens are remembered in a bounded cache keyed by
+ * a SHA-256 digest of the token (so raw tokens are not kept in memory) until their own expiry, which lets
+ * a client's repeated requests skip the signature check.
+ */
 @Component
 public class JwtUtil {
     
-    @Value("${app.jwt.secret}")
-    private String secret;
+    private final long expiration;
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final BoundedCache<String, String> verifiedUsernames;
     
-    @Value("${app.jwt.expiration}")
-    private Long expiration;
+    @Autowired
+    public JwtUtil(@Value("${app.jwt.secret}") String secret,
+                   @Value("${app.jwt.expiration}") long expiration,
+                   @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+                   MeterRegistry meterRegistry) {
+        this.expiration = expiration;
+        this.signInKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.verifiedUsernames = new BoundedCache<>(verifiedCacheSize, 0);
+        new BoundedCacheMetrics(verifiedUsernames, "jwt.verified").bindTo(meterRegistry);
+    }
+    
+    /**
+     * Returns the subject of a validly signed, unexpired token, from the cache when it was verified before.
+     *
+     * @throws JwtException if the token is malformed, wrongly signed or expired
+     */
+    public String verifyToken(String token) {
+        String digest = digest(token);
+        String username = verifiedUsernames.get(digest);
+        if (username != null) {
+            return username;
+        }
+        Claims claims = extractAllClaims(token);
+        username = claims.getSubject();
+        if (username == null) {
+            throw new JwtException("Token has no subject");
+        }
+        if (claims.getExpiration() != null) {
+            verifiedUsernames.put(digest, username, claims.getExpiration().getTime());
+        }
+        return username;
+    }
     
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -35,15 +87,7 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
     
     public String generateToken(String username) {
@@ -57,17 +101,27 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        try {
+            return verifyToken(token).equals(username);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        return Base64.getEncoder().encodeToString(sha256(token));
     }
 }
@@ -0,0 +1,261 @@
+package com.dealersautocenter.api.security;
+
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.ratelimit.RateLimit;
+import com.dealersautocenter.api.ratelimit.RateLimiter;
+import com.dealersautocenter.api.service.DealerCache;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Token-bucket limits on the payment API, applied after {@link JwtRequestFilter}: one bucket per JWT subject
+ * (or client address when there is none) and one per dealer the request targets, sized by the dealer's
+ * {@link SubscriptionType}. Over-limit requests get 429 with {@code Retry-After} before reaching a controller.
+ *
+ * The dealer is taken from the {@code dealerId} query parameter, a {@code /dealer/{id}} or {@code /summary/{id}}
+ * path, or the body of {@code POST /api/payment/initiate}, which is buffered so the controller can still read it.
+ * Only dealers that exist get a bucket, so a client sending made-up ids can't fill the limiter and push real
+ * dealers into its shared overflow bucket; such requests are still limited by the client bucket.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String PAYMENT_API = "/api/payment/";
+    private static final String INITIATE_PATH = "/api/payment/initiate";
+    private static final int MAX_BUFFERED_BODY_BYTES = 16 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+    
+    private final boolean enabled;
+    private final RateLimiter limiter;
+    private final RateLimit clientLimit;
+    private final Map<SubscriptionType, RateLimit> dealerLimits = new EnumMap<>(SubscriptionType.class);
+    private final Counter clientRejections;
+    private final Counter dealerRejections;
+    
+    @Autowired
+    private DealerCache dealerCache;
+    
+    public RateLimitFilter(@Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.max-buckets:100000}") int maxBuckets,
+                           @Value("${app.ratelimit.client.requests-per-second:50}") double clientRate,
+                           @Value("${app.ratelimit.client.burst:100}") int clientBurst,
+                           @Value("${app.ratelimit.dealer.basic.requests-per-second:5}") double basicRate,
+                           @Value("${app.ratelimit.dealer.basic.burst:20}") int basicBurst,
+                           @Value("${app.ratelimit.dealer.premium.requests-per-second:25}") double premiumRate,
+                           @Value("${app.ratelimit.dealer.premium.burst:100}") int premiumBurst,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limiter = new RateLimiter(maxBuckets);
+        this.clientLimit = RateLimit.of(clientRate, clientBurst);
+        dealerLimits.put(SubscriptionType.BASIC, RateLimit.of(basicRate, basicBurst));
+        dealerLimits.put(SubscriptionType.PREMIUM, RateLimit.of(premiumRate, premiumBurst));
+        
+        Gauge.builder("payments.ratelimit.buckets", limiter, RateLimiter::size)
+                .description("Clients and dealers with a rate-limit bucket")
+                .register(meterRegistry);
+        this.clientRejections = meterRegistry.counter("payments.ratelimit.rejected", "scope", "client");
+        this.dealerRejections = meterRegistry.counter("payments.ratelimit.rejected", "scope", "dealer");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(PAYMENT_API);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain chain) throws ServletException, IOException {
+        
+        long waitNanos = limiter.tryAcquire(clientKey(request), clientLimit);
+        if (waitNanos > 0) {
+            clientRejections.increment();
+            reject(response, waitNanos);
+            return;
+        }
+        
+        HttpServletRequest forwarded = request;
+        if (isInitiate(request)) {
+            forwarded = BufferedBodyRequest.of(request);
+        }
+        Long dealerId = dealerId(forwarded);
+        Optional<SubscriptionType> dealerSubscription = dealerId == null
+                ? Optional.empty()
+                : dealerCache.findById(dealerId).map(DealerDTO::getSubscriptionType);
+        if (dealerSubscription.isPresent()) {
+            SubscriptionType subscriptionType = dealerSubscription.get();
+            waitNanos = limiter.tryAcquire("dealer:" + dealerId,
+                    dealerLimits.getOrDefault(subscriptionType, dealerLimits.get(SubscriptionType.BASIC)));
+            if (waitNanos > 0) {
+                dealerRejections.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        chain.doFilter(forwarded, response);
+    }
+    
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            return "subject:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+    
+    private static boolean isInitiate(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && INITIATE_PATH.equals(request.getRequestURI());
+    }
+    
+    private static Long dealerId(HttpServletRequest request) {
+        String parameter = request.getParameter("dealerId");
+        if (parameter != null) {
+            return parseId(parameter);
+        }
+        String path = request.getRequestURI().substring(PAYMENT_API.length());
+        if (path.startsWith("dealer/")) {
+            return parseId(path.substring("dealer/".length()));
+        }
+        if (path.startsWith("summary/")) {
+            return parseId(path.substring("summary/".length()));
+        }
+        if (request instanceof BufferedBodyRequest buffered) {
+            return buffered.dealerId().orElse(null);
+        }
+        return null;
+    }
+    
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":429," +
+                "\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry after " +
+                retryAfterSeconds + " seconds\"}");
+    }
+    
+    // Holds a small request body in memory so it can be inspected here and read again by the controller
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        static HttpServletRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length < 0 || length > MAX_BUFFERED_BODY_BYTES) {
+                return request;
+            }
+            return new BufferedBodyRequest(request, request.getInputStream().readAllBytes());
+        }
+        
+        // Top-level "dealerId" of the JSON body, if present
+        Optional<Long> dealerId() {
+            try (JsonParser parser = JSON.createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return Optional.empty();
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("dealerId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        return Optional.of(parser.getLongValue());
+                    }
+                    parser.skipChildren();
+                }
+            } catch (IOException e) {
+                // Malformed bodies are left for the controller to reject
+            }
+            return Optional.empty();
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                // The body is already in memory, so all of it is available as soon as a listener is set
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+                
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
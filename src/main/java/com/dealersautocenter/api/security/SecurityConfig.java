@@ -20,6 +20,9 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
     
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -40,6 +43,8 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/swagger-ui.html").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
+                // Metrics expose internals, so only health stays public
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").authenticated()
                 .requestMatchers("/actuator/**").permitAll()
                 // Protected endpoints for payments (bonus JWT requirement)
                 .requestMatchers("/api/payment/**").authenticated()
@@ -49,6 +54,8 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // After authentication so limits apply per JWT subject
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,154 @@
+package com.dealersautocenter.api.security;
+
+import com.dealersautocenter.api.cache.BloomFilter;
+import com.dealersautocenter.api.entity.RevokedToken;
+import com.dealersautocenter.api.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked JWTs, persisted in {@code revoked_tokens} and fronted by an in-memory {@link BloomFilter} so that
+ * checking a token that was never revoked (nearly every request) touches neither the database nor a set.
+ * Only filter hits are confirmed against the table.
+ *
+ * The filter is rebuilt every {@code rebuild-interval-ms}: expired rows are pruned first, then a new filter
+ * is sized for what is left and swapped in. Revocations made on other instances are picked up by that rebuild.
+ */
+@Component
+public class TokenDenylist {
+    
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+    
+    private static final HexFormat HEX = HexFormat.of();
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+    
+    private volatile BloomFilter filter;
+    // The filter being loaded by a rebuild, which must also receive revocations made meanwhile
+    private volatile BloomFilter rebuilding;
+    // Not a monitor: a rebuild runs queries while holding it, which would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    private final Counter notRevoked;
+    private final Counter revoked;
+    private final Counter falsePositives;
+    
+    public TokenDenylist(@Value("${app.jwt.denylist.expected-revocations:10000}") long expectedRevocations,
+                         @Value("${app.jwt.denylist.false-positive-rate:0.001}") double falsePositiveProbability,
+                         MeterRegistry meterRegistry) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = BloomFilter.create(expectedRevocations, falsePositiveProbability);
+        
+        this.notRevoked = meterRegistry.counter("jwt.denylist.checks", "result", "not_revoked");
+        this.revoked = meterRegistry.counter("jwt.denylist.checks", "result", "revoked");
+        this.falsePositives = meterRegistry.counter("jwt.denylist.checks", "result", "false_positive");
+        Gauge.builder("jwt.denylist.bloom.memory", this, denylist -> denylist.filter.bitSize() / 8.0)
+                .baseUnit("bytes")
+                .description("Size of the revoked-token Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("jwt.denylist.bloom.entries", this, denylist -> denylist.filter.insertionCount())
+                .description("Revoked tokens in the Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("jwt.denylist.bloom.expected_false_positive_rate", this,
+                        denylist -> denylist.filter.expectedFalsePositiveRate())
+                .description("False-positive probability implied by the filter's size and contents")
+                .register(meterRegistry);
+        Gauge.builder("jwt.denylist.bloom.false_positive_rate", this, TokenDenylist::observedFalsePositiveRate)
+                .description("Share of non-revoked tokens that still needed a database lookup")
+                .register(meterRegistry);
+    }
+    
+    public boolean isRevoked(String token) {
+        byte[] digest = JwtUtil.sha256(token);
+        if (!filter.mightContain(digest)) {
+            notRevoked.increment();
+            return false;
+        }
+        if (revokedTokenRepository.existsById(HEX.formatHex(digest))) {
+            revoked.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+    
+    /**
+     * Revokes a token until it expires.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is not a valid, unexpired token of this service
+     */
+    public void revoke(String token) {
+        Date expiration = jwtUtil.extractExpiration(token);
+        byte[] digest = JwtUtil.sha256(token);
+        String tokenDigest = HEX.formatHex(digest);
+        if (!revokedTokenRepository.existsById(tokenDigest)) {
+            try {
+                revokedTokenRepository.save(new RevokedToken(tokenDigest,
+                        LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault())));
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently
+            }
+        }
+        // Saved before being added, and the filter being rebuilt is read before the live one: a rebuild that
+        // has not published its filter by then either loads the row or is caught here, and one that has
+        // published it is what the read of the live filter sees
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(digest);
+        }
+        filter.put(digest);
+    }
+    
+    /**
+     * Prunes expired revocations and replaces the filter with one built from the remaining rows.
+     * Returns the number of revoked tokens in the new filter.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.rebuild-interval-ms:60000}")
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int pruned = revokedTokenRepository.deleteExpired(now);
+            BloomFilter next = BloomFilter.create(Math.max(expectedRevocations, 2 * revokedTokenRepository.count()),
+                    falsePositiveProbability);
+            rebuilding = next;
+            List<String> digests = revokedTokenRepository.findUnexpiredDigests(now);
+            digests.forEach(digest -> next.put(HEX.parseHex(digest)));
+            filter = next;
+            rebuilding = null;
+            if (pruned > 0) {
+                log.info("Pruned {} expired token revocations; {} remain", pruned, digests.size());
+            }
+            return digests.size();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    private double observedFalsePositiveRate() {
+        double negatives = notRevoked.count() + falsePositives.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+}
@@ -0,0 +1,119 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.BulkItemResultDTO;
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The per-row bookkeeping of a bulk create request: rows are validated up front, the valid ones are inserted
+ * in chunks (one transaction each, so JDBC batching applies) and every row ends up with its own result.
+ *
+ * A chunk that fails to commit is retried one row per transaction, so a single bad row only fails itself.
+ * Database errors are logged rather than returned, since their messages carry SQL and constraint names.
+ */
+class BulkInsert<T> {
+    
+    private static final Logger log = LoggerFactory.getLogger(BulkInsert.class);
+    
+    // Largest accepted bulk request, and rows committed per transaction within one
+    static final int MAX_SIZE = 20000;
+    static final int CHUNK_SIZE = 1000;
+    
+    static final String SAVE_FAILED = "Could not be saved";
+    
+    private final List<T> rows;
+    private final BulkItemResultDTO[] items;
+    
+    BulkInsert(List<T> rows, String rowName) {
+        if (rows.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("A bulk request may contain at most " + MAX_SIZE + " " + rowName);
+        }
+        this.rows = rows;
+        this.items = new BulkItemResultDTO[rows.size()];
+    }
+    
+    /**
+     * The referenced ids that exist, looked up with a single query for the whole request.
+     */
+    Set<Long> existingIds(Function<T, Long> idOf, Function<Set<Long>, Collection<Long>> lookup) {
+        Set<Long> ids = rows.stream()
+                .filter(Objects::nonNull)
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return ids.isEmpty() ? Set.of() : new HashSet<>(lookup.apply(ids));
+    }
+    
+    /**
+     * Fails every row the validator returns an error for; the indexes of the remaining rows, in order.
+     */
+    List<Integer> validate(Function<T, String> validator) {
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String error = validator.apply(rows.get(i));
+            if (error != null) {
+                fail(i, error);
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        return validIndexes;
+    }
+    
+    void fail(int index, String error) {
+        items[index] = BulkItemResultDTO.failed(index, error);
+    }
+    
+    /**
+     * Inserts the rows at the given indexes. {@code insertChunk} runs inside the transaction and must build
+     * fresh entities from the rows on every call, since a chunk that fails is retried row by row.
+     *
+     * @return the saved entities, in row order
+     */
+    <E> List<E> insert(List<Integer> indexes, TransactionTemplate transactionTemplate,
+                       Function<List<T>, List<E>> insertChunk, Function<E, Long> idOf) {
+        List<E> saved = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + CHUNK_SIZE, indexes.size()));
+            try {
+                saved.addAll(insertInTransaction(chunk, transactionTemplate, insertChunk, idOf));
+            } catch (RuntimeException e) {
+                log.warn("Bulk insert of {} rows failed, retrying them one at a time", chunk.size(), e);
+                for (Integer index : chunk) {
+                    try {
+                        saved.addAll(insertInTransaction(List.of(index), transactionTemplate, insertChunk, idOf));
+                    } catch (RuntimeException rowFailure) {
+                        log.warn("Bulk row {} could not be saved", index, rowFailure);
+                        fail(index, SAVE_FAILED);
+                    }
+                }
+            }
+        }
+        return saved;
+    }
+    
+    BulkResultDTO result() {
+        return new BulkResultDTO(Arrays.asList(items));
+    }
+    
+    private <E> List<E> insertInTransaction(List<Integer> chunk, TransactionTemplate transactionTemplate,
+                                            Function<List<T>, List<E>> insertChunk, Function<E, Long> idOf) {
+        List<T> chunkRows = chunk.stream().map(rows::get).collect(Collectors.toList());
+        List<E> saved = transactionTemplate.execute(status -> insertChunk.apply(chunkRows));
+        for (int i = 0; i < chunk.size(); i++) {
+            items[chunk.get(i)] = BulkItemResultDTO.created(chunk.get(i), idOf.apply(saved.get(i)));
+        }
+        return saved;
+    }
+}
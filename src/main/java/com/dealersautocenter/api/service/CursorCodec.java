@@ -0,0 +1,68 @@
+package com.dealersautocenter.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque cursor strings for the paginated list endpoints.
+ */
+final class CursorCodec {
+    
+    static final int MAX_PAGE_SIZE = 500;
+    
+    private static final String SEPARATOR = "|";
+    
+    private CursorCodec() {}
+    
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+    
+    static Long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    static String encodeTimestampAndId(LocalDateTime timestamp, Long id) {
+        return encode(timestamp + SEPARATOR + id);
+    }
+    
+    static TimestampAndId decodeTimestampAndId(String cursor) {
+        String value = decode(cursor);
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new TimestampAndId(
+                LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    record TimestampAndId(LocalDateTime timestamp, Long id) {}
+}
@@ -0,0 +1,121 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.cache.BoundedCache;
+import com.dealersautocenter.api.cache.BoundedCacheMetrics;
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.repository.DealerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of dealers keyed by id and by email.
+ *
+ * Entries expire after a TTL so that writes made on other instances become visible eventually;
+ * writes on this instance go through {@link #put} / {@link #invalidate} immediately. Ids with no
+ * dealer are remembered for a much shorter TTL, so repeated lookups of unknown ids (e.g. random
+ * ids in requests) do not each cost a database query.
+ */
+@Component
+public class DealerCache {
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    private final BoundedCache<Long, DealerDTO> dealersById;
+    private final BoundedCache<String, Long> dealerIdsByEmail;
+    private final BoundedCache<Long, Boolean> missingIds;
+    
+    // Bumped on every invalidation so a load that raced with a write does not re-cache stale data
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public DealerCache(@Value("${app.cache.dealer.max-size:10000}") int maxSize,
+                       @Value("${app.cache.dealer.ttl-seconds:300}") long ttlSeconds,
+                       @Value("${app.cache.dealer.miss-ttl-seconds:5}") long missTtlSeconds,
+                       MeterRegistry meterRegistry) {
+        this.dealersById = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+        this.dealerIdsByEmail = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+        this.missingIds = new BoundedCache<>(maxSize, missTtlSeconds * 1000);
+        new BoundedCacheMetrics(dealersById, "dealers.byId").bindTo(meterRegistry);
+        new BoundedCacheMetrics(dealerIdsByEmail, "dealers.byEmail").bindTo(meterRegistry);
+        new BoundedCacheMetrics(missingIds, "dealers.missing").bindTo(meterRegistry);
+    }
+    
+    public Optional<DealerDTO> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        DealerDTO cached = dealersById.get(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        if (missingIds.get(id) != null) {
+            return Optional.empty();
+        }
+        long generation = invalidations.get();
+        Optional<Dealer> dealer = dealerRepository.findById(id);
+        if (dealer.isPresent()) {
+            cacheIfCurrent(dealer.get(), generation);
+        } else if (invalidations.get() == generation) {
+            missingIds.put(id, Boolean.TRUE);
+        }
+        return dealer.map(DealerCache::toDTO);
+    }
+    
+    public Optional<DealerDTO> findByEmail(String email) {
+        Long id = dealerIdsByEmail.get(email);
+        if (id != null) {
+            Optional<DealerDTO> dealer = findById(id);
+            if (dealer.isPresent() && dealer.get().getEmail().equals(email)) {
+                return dealer;
+            }
+            dealerIdsByEmail.invalidate(email);
+        }
+        long generation = invalidations.get();
+        Optional<Dealer> dealer = dealerRepository.findByEmail(email);
+        dealer.ifPresent(found -> cacheIfCurrent(found, generation));
+        return dealer.map(DealerCache::toDTO);
+    }
+    
+    public boolean exists(Long id) {
+        return findById(id).isPresent();
+    }
+    
+    public void put(Dealer dealer) {
+        invalidations.incrementAndGet();
+        missingIds.invalidate(dealer.getId());
+        dealersById.put(dealer.getId(), toDTO(dealer));
+        dealerIdsByEmail.put(dealer.getEmail(), dealer.getId());
+    }
+    
+    public void invalidate(Long id, String... emails) {
+        invalidations.incrementAndGet();
+        dealersById.invalidate(id);
+        for (String email : emails) {
+            dealerIdsByEmail.invalidate(email);
+        }
+    }
+    
+    private void cacheIfCurrent(Dealer dealer, long generation) {
+        if (invalidations.get() == generation) {
+            dealersById.put(dealer.getId(), toDTO(dealer));
+            dealerIdsByEmail.put(dealer.getEmail(), dealer.getId());
+        }
+    }
+    
+    private static DealerDTO toDTO(Dealer dealer) {
+        DealerDTO dto = new DealerDTO(dealer.getId(), dealer.getName(), dealer.getEmail(), dealer.getSubscriptionType());
+        dto.setUpdatedAt(dealer.getUpdatedAt());
+        return dto;
+    }
+    
+    private static DealerDTO copy(DealerDTO dealer) {
+        DealerDTO dto = new DealerDTO(dealer.getId(), dealer.getName(), dealer.getEmail(), dealer.getSubscriptionType());
+        dto.setUpdatedAt(dealer.getUpdatedAt());
+        return dto;
+    }
+}
@@ -1,11 +1,16 @@
 package com.dealersautocenter.api.service;
 
+import com.dealersautocenter.api.config.ReplicaRead;
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.DealerDTO;
 import com.dealersautocenter.api.entity.Dealer;
 import com.dealersautocenter.api.entity.SubscriptionType;
 import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -16,22 +21,67 @@ public class DealerService {
     @Autowired
     private DealerRepository dealerRepository;
     
-    public List<DealerDTO> getAllDealers() {
-        return dealerRepository.findAll().stream()
+    @Autowired
+    private DealerCache dealerCache;
+    
+    @Autowired
+    private PremiumVehicleView premiumVehicleView;
+    
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private VehicleModelIndex vehicleModelIndex;
+    
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public CursorPageDTO<DealerDTO> getAllDealers(int limit, String after) {
+        int pageSize = CursorCodec.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Dealer> rows = after == null
+                ? dealerRepository.findAllByOrderByIdAsc(page)
+                : dealerRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decodeId(after), page);
+        List<DealerDTO> dealers = rows.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return CursorPageDTO.of(dealers, pageSize, dealer -> CursorCodec.encodeId(dealer.getId()));
     }
     
+    // Answered by DealerCache, whose loads stay on the primary because write paths check dealers through it
     public Optional<DealerDTO> getDealerById(Long id) {
-        return dealerRepository.findById(id)
-                .map(this::convertToDTO);
+        return dealerCache.findById(id);
+    }
+    
+    /**
+     * Strong ETag for {@code GET /api/dealers/{id}}, from the dealer's {@code updatedAt} on the primary,
+     * since the dealer cache may hold a copy older than a write made on another instance.
+     */
+    public Optional<String> getDealerETag(Long id) {
+        return dealerRepository.findUpdatedAtById(id).map(updatedAt -> ETags.of("dealer", id, updatedAt));
+    }
+    
+    /**
+     * The dealer as of the given ETag: the cached copy when it is that version, otherwise reloaded, so a
+     * stale cache entry is never sent under a newer ETag.
+     */
+    public Optional<DealerDTO> getDealerById(Long id, String eTag) {
+        Optional<DealerDTO> cached = dealerCache.findById(id);
+        if (cached.isPresent() && !eTag.equals(ETags.of("dealer", id, cached.get().getUpdatedAt()))) {
+            dealerCache.invalidate(id, cached.get().getEmail());
+            return dealerCache.findById(id);
+        }
+        return cached;
     }
     
     public Optional<DealerDTO> getDealerByEmail(String email) {
-        return dealerRepository.findByEmail(email)
-                .map(this::convertToDTO);
+        return dealerCache.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<DealerDTO> getDealersBySubscriptionType(SubscriptionType subscriptionType) {
         return dealerRepository.findBySubscriptionType(subscriptionType).stream()
                 .map(this::convertToDTO)
@@ -45,7 +95,10 @@ public class DealerService {
         
         Dealer dealer = convertToEntity(dealerDTO);
         Dealer savedDealer = dealerRepository.save(dealer);
-        return convertToDTO(savedDealer);
+        dealerCache.put(savedDealer);
+        DealerDTO savedDTO = convertToDTO(savedDealer);
+        premiumVehicleView.onDealerSaved(savedDTO);
+        return savedDTO;
     }
     
     public DealerDTO updateDealer(Long id, DealerDTO dealerDTO) {
@@ -61,19 +114,30 @@ public class DealerService {
         }
         
         Dealer dealer = existingDealer.get();
+        String previousEmail = dealer.getEmail();
         dealer.setName(dealerDTO.getName());
         dealer.setEmail(dealerDTO.getEmail());
         dealer.setSubscriptionType(dealerDTO.getSubscriptionType());
         
         Dealer savedDealer = dealerRepository.save(dealer);
-        return convertToDTO(savedDealer);
+        dealerCache.invalidate(id, previousEmail);
+        dealerCache.put(savedDealer);
+        DealerDTO savedDTO = convertToDTO(savedDealer);
+        premiumVehicleView.onDealerSaved(savedDTO);
+        return savedDTO;
     }
     
     public void deleteDealer(Long id) {
         if (!dealerRepository.existsById(id)) {
             throw new RuntimeException("Dealer with id " + id + " not found");
         }
+        // Read before the delete cascades to the dealer's vehicles, which must leave the model index too
+        List<Long> vehicleIds = vehicleRepository.findIdsByDealerId(id);
         dealerRepository.deleteById(id);
+        dealerCache.invalidate(id);
+        vehicleIds.forEach(vehicleModelIndex::remove);
+        premiumVehicleView.onDealerDeleted(id);
+        paymentSummaryService.onDealerDeleted(id);
     }
     
     private DealerDTO convertToDTO(Dealer dealer) {
@@ -0,0 +1,29 @@
+package com.dealersautocenter.api.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+/**
+ * Builds strong entity tags for conditional GETs from version fields (ids, row counts,
+ * {@code updatedAt} values) so that a request can be answered with 304 before any
+ * response body is assembled.
+ */
+final class ETags {
+    
+    private ETags() {}
+    
+    static String of(Object... parts) {
+        StringJoiner tag = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            tag.add(part instanceof LocalDateTime timestamp ? encode(timestamp) : String.valueOf(part));
+        }
+        return tag.toString();
+    }
+    
+    // Truncated to microseconds to match what a timestamp(6) column round-trips
+    private static String encode(LocalDateTime timestamp) {
+        long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+        return Long.toHexString(micros);
+    }
+}
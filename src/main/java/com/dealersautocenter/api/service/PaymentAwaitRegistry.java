@@ -0,0 +1,87 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-poll requests waiting for a payment to leave PENDING, keyed by payment id.
+ *
+ * Waiters hold no thread; the settlement code calls {@link #complete} with the settled payment and every
+ * waiter for that id is answered from memory. Waiters remove themselves on completion, timeout or error.
+ */
+@Component
+public class PaymentAwaitRegistry {
+    
+    private final int maxWaiters;
+    private final Map<Long, Set<DeferredResult<ResponseEntity<PaymentResponseDTO>>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    
+    @Autowired
+    public PaymentAwaitRegistry(@Value("${app.payment.await.max-waiters:10000}") int maxWaiters,
+                                MeterRegistry meterRegistry) {
+        this.maxWaiters = maxWaiters;
+        Gauge.builder("payments.await.waiters", waiting, AtomicInteger::get)
+                .description("Requests waiting for a payment to settle")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Registers a waiter for the payment; returns {@code false} when the registry is full.
+     */
+    public boolean register(Long paymentId, DeferredResult<ResponseEntity<PaymentResponseDTO>> result) {
+        while (true) {
+            int current = waiting.get();
+            if (current >= maxWaiters) {
+                return false;
+            }
+            if (waiting.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        // compute() so the add can't race with remove() dropping an emptied set
+        waiters.compute(paymentId, (id, results) -> {
+            Set<DeferredResult<ResponseEntity<PaymentResponseDTO>>> updated =
+                    results != null ? results : ConcurrentHashMap.newKeySet();
+            updated.add(result);
+            return updated;
+        });
+        result.onCompletion(() -> remove(paymentId, result));
+        return true;
+    }
+    
+    public boolean hasWaiters(Long paymentId) {
+        return waiters.containsKey(paymentId);
+    }
+    
+    public int size() {
+        return waiting.get();
+    }
+    
+    public void complete(PaymentResponseDTO payment) {
+        Set<DeferredResult<ResponseEntity<PaymentResponseDTO>>> results = waiters.remove(payment.getId());
+        if (results != null) {
+            waiting.addAndGet(-results.size());
+            ResponseEntity<PaymentResponseDTO> response = ResponseEntity.ok(payment);
+            results.forEach(result -> result.setResult(response));
+        }
+    }
+    
+    private void remove(Long paymentId, DeferredResult<ResponseEntity<PaymentResponseDTO>> result) {
+        waiters.computeIfPresent(paymentId, (id, results) -> {
+            if (results.remove(result)) {
+                waiting.decrementAndGet();
+            }
+            return results.isEmpty() ? null : results;
+        });
+    }
+}
@@ -0,0 +1,243 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.PaymentStatusEventDTO;
+import com.dealersautocenter.api.exception.EventStreamCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans payment status changes out to Server-Sent Events subscribers.
+ *
+ * {@link #publish} only appends to each matching subscriber's bounded buffer, so settlement threads never wait on a
+ * client socket. Sender threads drain the buffers, with at most one drain task per subscriber at a time; the pool
+ * keeps {@code sender-threads} alive and grows up to one thread per subscription, so a client that stops reading
+ * only ever blocks its own drain. A subscriber whose buffer overflows, or whose send has been stuck for longer than
+ * {@code send-timeout-ms}, is disconnected (its client reconnects and re-reads current state) rather than silently
+ * missing transitions or holding up everyone else. Open streams are capped globally and per dealer.
+ */
+@Component
+public class PaymentEventPublisher {
+    
+    static final String EVENT_NAME = "payment-status";
+    
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int maxSubscriptions;
+    private final int maxSubscriptionsPerDealer;
+    private final ExecutorService senders;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Makes the limit check and the add one step; removals need no lock
+    private final ReentrantLock subscribeLock = new ReentrantLock();
+    private final AtomicLong eventSequence = new AtomicLong();
+    
+    private final Counter delivered;
+    private final Counter overflowed;
+    private final Counter stalled;
+    
+    @Autowired
+    public PaymentEventPublisher(@Value("${app.payment.events.buffer-size:256}") int bufferSize,
+                                 @Value("${app.payment.events.sender-threads:2}") int senderThreads,
+                                 @Value("${app.payment.events.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${app.payment.events.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                 @Value("${app.payment.events.max-subscriptions:1000}") int maxSubscriptions,
+                                 @Value("${app.payment.events.max-subscriptions-per-dealer:10}")
+                                 int maxSubscriptionsPerDealer,
+                                 MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.maxSubscriptions = maxSubscriptions;
+        this.maxSubscriptionsPerDealer = maxSubscriptionsPerDealer;
+        AtomicInteger threadSequence = new AtomicInteger();
+        // No queue: a drain task gets an idle thread or a new one, up to one per subscription
+        this.senders = new ThreadPoolExecutor(senderThreads, Math.max(senderThreads, maxSubscriptions),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "payment-events-sender-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("payments.events.subscribers", subscriptions, List::size)
+                .description("Open payment status streams")
+                .register(meterRegistry);
+        this.delivered = meterRegistry.counter("payments.events.delivered");
+        this.overflowed = meterRegistry.counter("payments.events.overflowed");
+        this.stalled = meterRegistry.counter("payments.events.stalled");
+    }
+    
+    /**
+     * Opens a stream of status changes, limited to one dealer's payments when {@code dealerId} is set.
+     *
+     * @throws EventStreamCapacityExceededException if the global or the dealer's stream limit is reached
+     */
+    public SseEmitter subscribe(Long dealerId) {
+        return subscribe(dealerId, new SseEmitter(timeoutMillis));
+    }
+    
+    SseEmitter subscribe(Long dealerId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(dealerId, emitter);
+        subscribeLock.lock();
+        try {
+            if (subscriptions.size() >= maxSubscriptions) {
+                throw new EventStreamCapacityExceededException("Too many open payment status streams");
+            }
+            if (dealerId != null && subscriptions.stream()
+                    .filter(open -> dealerId.equals(open.dealerId))
+                    .count() >= maxSubscriptionsPerDealer) {
+                throw new EventStreamCapacityExceededException(
+                        "Too many open payment status streams for dealer " + dealerId);
+            }
+            subscriptions.add(subscription);
+        } finally {
+            subscribeLock.unlock();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+    
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+    
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+    
+    public void publish(PaymentStatusEventDTO event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        String id = Long.toString(eventSequence.incrementAndGet());
+        for (Subscription subscription : subscriptions) {
+            if (subscription.accepts(event)) {
+                subscription.offer(new SequencedEvent(id, event));
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::close);
+        senders.shutdownNow();
+    }
+    
+    private record SequencedEvent(String id, PaymentStatusEventDTO payload) {}
+    
+    private final class Subscription {
+        
+        private final Long dealerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SequencedEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        // System.nanoTime when the send in progress started
+        private volatile long sendStartedAt = NOT_SENDING;
+        
+        Subscription(Long dealerId, SseEmitter emitter) {
+            this.dealerId = dealerId;
+            this.emitter = emitter;
+        }
+        
+        boolean accepts(PaymentStatusEventDTO event) {
+            return dealerId == null || dealerId.equals(event.getDealerId());
+        }
+        
+        void offer(SequencedEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            long sendStarted = sendStartedAt;
+            if (sendStarted != NOT_SENDING && System.nanoTime() - sendStarted > sendTimeoutNanos) {
+                stalled.increment();
+                disconnect();
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflowed.increment();
+                disconnect();
+            }
+            scheduleDrain();
+        }
+        
+        // Stops fanning out to it now; the emitter is completed from its sender thread, since completing it here
+        // would wait on the send in progress
+        private void disconnect() {
+            closed.set(true);
+            subscriptions.remove(this);
+        }
+        
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+        
+        private void drain() {
+            SequencedEvent event;
+            while (!closed.get() && (event = buffer.poll()) != null) {
+                sendStartedAt = System.nanoTime();
+                try {
+                    emitter.send(SseEmitter.event().id(event.id()).name(EVENT_NAME).data(event.payload()));
+                    delivered.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    closed.set(true);
+                } finally {
+                    sendStartedAt = NOT_SENDING;
+                }
+            }
+            if (closed.get()) {
+                close();
+                return;
+            }
+            draining.set(false);
+            // An event may have arrived after the last poll but before the flag was cleared
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        
+        void close() {
+            closed.set(true);
+            subscriptions.remove(this);
+            buffer.clear();
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+    }
+}
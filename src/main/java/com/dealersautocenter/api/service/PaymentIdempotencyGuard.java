@@ -0,0 +1,109 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.cache.BoundedCache;
+import com.dealersautocenter.api.cache.BoundedCacheMetrics;
+import com.dealersautocenter.api.dto.PaymentRequestDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.exception.IdempotencyKeyConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes {@code POST /api/payment/initiate} idempotent per {@code Idempotency-Key} and JWT subject, so two
+ * callers that happen to pick the same key never see each other's payments.
+ *
+ * Replays are answered from a bounded TTL cache of responses; concurrent requests with the same key
+ * wait for the first one instead of initiating again; and the unique {@code payments.idempotency_key}
+ * column catches duplicates from other nodes or after the cache entry has expired.
+ */
+@Component
+public class PaymentIdempotencyGuard {
+    
+    static final int MAX_KEY_LENGTH = 255;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    private final BoundedCache<String, PaymentResponseDTO> responses;
+    private final Map<String, CompletableFuture<PaymentResponseDTO>> inFlight = new ConcurrentHashMap<>();
+    
+    public PaymentIdempotencyGuard(@Value("${app.payment.idempotency.max-size:100000}") int maxSize,
+                                   @Value("${app.payment.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.responses = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+        new BoundedCacheMetrics(responses, "payments.idempotency").bindTo(meterRegistry);
+    }
+    
+    public PaymentResponseDTO initiate(String subject, String idempotencyKey, PaymentRequestDTO paymentRequest) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        // The cache, the in-flight map and the stored column all hold the key scoped to its caller
+        String scopedKey = subject + ':' + idempotencyKey;
+        PaymentResponseDTO cached = responses.get(scopedKey);
+        if (cached != null) {
+            return matching(cached, paymentRequest, idempotencyKey);
+        }
+        
+        CompletableFuture<PaymentResponseDTO> mine = new CompletableFuture<>();
+        CompletableFuture<PaymentResponseDTO> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            return matching(await(running), paymentRequest, idempotencyKey);
+        }
+        try {
+            PaymentResponseDTO response = initiateOnce(scopedKey, paymentRequest);
+            responses.put(scopedKey, response);
+            mine.complete(response);
+            return matching(response, paymentRequest, idempotencyKey);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+    
+    private PaymentResponseDTO initiateOnce(String scopedKey, PaymentRequestDTO paymentRequest) {
+        Optional<PaymentResponseDTO> stored = paymentService.getPaymentByIdempotencyKey(scopedKey);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            return paymentService.initiatePayment(paymentRequest, scopedKey);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same key first
+            return paymentService.getPaymentByIdempotencyKey(scopedKey).orElseThrow(() -> e);
+        }
+    }
+    
+    private static PaymentResponseDTO await(CompletableFuture<PaymentResponseDTO> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static PaymentResponseDTO matching(PaymentResponseDTO response, PaymentRequestDTO paymentRequest,
+                                               String idempotencyKey) {
+        boolean same = response.getDealerId().equals(paymentRequest.getDealerId())
+                && response.getAmount().compareTo(paymentRequest.getAmount()) == 0
+                && response.getPaymentMethod() == paymentRequest.getMethod();
+        if (!same) {
+            throw new IdempotencyKeyConflictException(
+                "Idempotency-Key " + idempotencyKey + " was already used for a different payment request");
+        }
+        return response;
+    }
+}
@@ -1,63 +1,244 @@
 package com.dealersautocenter.api.service;
 
+import com.dealersautocenter.api.config.ReplicaRead;
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.PaymentRequestDTO;
 import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.PaymentStatusEventDTO;
 import com.dealersautocenter.api.entity.Payment;
 import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.CircuitBreakerOpenException;
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import com.dealersautocenter.api.exception.PaymentStatusConflictException;
+import com.dealersautocenter.api.exception.SettlementCapacityExceededException;
+import com.dealersautocenter.api.gateway.PaymentGateway;
 import com.dealersautocenter.api.repository.DealerRepository;
 import com.dealersautocenter.api.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PaymentService {
     
+    // Rows written between persistence context clears during an export
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    
     @Autowired
     private PaymentRepository paymentRepository;
     
     @Autowired
     private DealerRepository dealerRepository;
     
-    public List<PaymentResponseDTO> getAllPayments() {
-        return paymentRepository.findAll().stream()
+    @Autowired
+    private DealerCache dealerCache;
+    
+    @Autowired
+    private PaymentSettlementScheduler settlementScheduler;
+    
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+    
+    @Autowired
+    private PaymentAwaitRegistry paymentAwaitRegistry;
+    
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+    
+    @Autowired
+    private PaymentGateway paymentGateway;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.payment.sweep.page-size:500}")
+    private int sweepPageSize;
+    
+    @Value("${app.payment.sweep.max-pass-ms:10000}")
+    private long sweepMaxPassMillis;
+    
+    @Value("${app.payment.sweep.min-age-seconds:10}")
+    private long sweepMinAgeSeconds;
+    
+    @Value("${app.payment.sweep.lease-seconds:60}")
+    private long sweepLeaseSeconds;
+    
+    @Value("${app.payment.sweep.max-in-flight:25}")
+    private int sweepMaxInFlight;
+    
+    @Value("${app.payment.gateway.bulkhead.max-concurrent:50}")
+    private int gatewayMaxConcurrent;
+    
+    @Value("${app.payment.await.max-timeout-seconds:60}")
+    private long awaitMaxTimeoutSeconds;
+    
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public CursorPageDTO<PaymentResponseDTO> getAllPayments(int limit, String after) {
+        int pageSize = CursorCodec.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Payment> rows;
+        if (after == null) {
+            rows = paymentRepository.findPage(page);
+        } else {
+            CursorCodec.TimestampAndId position = CursorCodec.decodeTimestampAndId(after);
+            rows = paymentRepository.findPageAfter(position.timestamp(), position.id(), page);
+        }
+        List<PaymentResponseDTO> payments = rows.stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
+        return CursorPageDTO.of(payments, pageSize,
+                payment -> CursorCodec.encodeTimestampAndId(payment.getCreatedAt(), payment.getId()));
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public Optional<PaymentResponseDTO> getPaymentById(Long id) {
         return paymentRepository.findById(id)
                 .map(this::convertToResponseDTO);
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<PaymentResponseDTO> getPaymentsByDealerId(Long dealerId) {
         return paymentRepository.findByDealerId(dealerId).stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<PaymentResponseDTO> getPaymentsByStatus(PaymentStatus status) {
         return paymentRepository.findByStatus(status).stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
     
+    // Backs Idempotency-Key replays of POST /initiate, so it reads the primary
+    public Optional<PaymentResponseDTO> getPaymentByIdempotencyKey(String idempotencyKey) {
+        return paymentRepository.findByIdempotencyKey(idempotencyKey)
+                .map(this::convertToResponseDTO);
+    }
+    
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public Optional<PaymentResponseDTO> getPaymentByTransactionId(String transactionId) {
         return paymentRepository.findByTransactionId(transactionId)
                 .map(this::convertToResponseDTO);
     }
     
+    /**
+     * Answers once the payment leaves PENDING, or with its current state after {@code timeoutSeconds}
+     * (capped at {@code max-timeout-seconds}). The request holds no thread while waiting; the settlement
+     * code completes it through {@link PaymentAwaitRegistry}.
+     */
+    public DeferredResult<ResponseEntity<PaymentResponseDTO>> awaitPayment(Long id, long timeoutSeconds) {
+        long timeoutMillis = Math.max(1, Math.min(timeoutSeconds, awaitMaxTimeoutSeconds)) * 1000;
+        DeferredResult<ResponseEntity<PaymentResponseDTO>> result = new DeferredResult<>(timeoutMillis);
+        // Register before reading so a settlement landing in between is not missed
+        if (!paymentAwaitRegistry.register(id, result)) {
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build());
+            return result;
+        }
+        Optional<PaymentResponseDTO> payment = getPaymentById(id);
+        if (payment.isEmpty()) {
+            result.setResult(ResponseEntity.notFound().build());
+        } else if (payment.get().getStatus() != PaymentStatus.PENDING) {
+            result.setResult(ResponseEntity.ok(payment.get()));
+        } else {
+            // Read again rather than replay the snapshot: the payment may have settled since, or been deleted
+            result.onTimeout(() -> result.setResult(getPaymentById(id)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build())));
+        }
+        return result;
+    }
+    
+    /**
+     * Streams every payment as one JSON object per line, reading through a server-side cursor
+     * so memory stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public void exportPayments(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PaymentResponseDTO.class);
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try (Stream<Payment> payments = paymentRepository.streamAllForExport()) {
+            Iterator<Payment> iterator = payments.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(convertToResponseDTO(iterator.next())));
+                out.write('\n');
+                if (++rows % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+    }
+    
     public PaymentResponseDTO initiatePayment(PaymentRequestDTO paymentRequest) {
+        return initiatePayment(paymentRequest, null);
+    }
+    
+    /**
+     * Creates a pending payment, recording the client's idempotency key (if any) on the row so a
+     * concurrent duplicate on another node fails on the unique column instead of creating a second payment.
+     */
+    public PaymentResponseDTO initiatePayment(PaymentRequestDTO paymentRequest, String idempotencyKey) {
         // Validate dealer exists
-        if (!dealerRepository.existsById(paymentRequest.getDealerId())) {
+        if (!dealerCache.exists(paymentRequest.getDealerId())) {
             throw new RuntimeException("Dealer with id " + paymentRequest.getDealerId() + " not found");
         }
+        paymentSummaryService.ensureSummary(paymentRequest.getDealerId());
+        if (!settlementScheduler.tryReserve()) {
+            throw new SettlementCapacityExceededException("Too many payments awaiting settlement, retry later");
+        }
         
         Payment payment = new Payment(
             paymentRequest.getDealerId(),
@@ -65,51 +246,218 @@ public class PaymentService {
             paymentRequest.getMethod(),
             PaymentStatus.PENDING
         );
+        payment.setIdempotencyKey(idempotencyKey);
         
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment;
+        try {
+            savedPayment = transactionTemplate.execute(status -> {
+                Payment saved = paymentRepository.save(payment);
+                paymentSummaryService.recordCreated(saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            settlementScheduler.release();
+            throw e;
+        }
         
-        // Schedule async payment processing after 5 seconds
-        processPaymentAfterDelay(savedPayment.getId());
+        // Settled by the scheduler after the processing delay; nothing blocks this thread
+        settlementScheduler.schedule(savedPayment.getId());
         
         return convertToResponseDTO(savedPayment);
     }
     
-    @Async
-    public CompletableFuture<Void> processPaymentAfterDelay(Long paymentId) {
-        try {
-            // Wait for 5 seconds to simulate payment processing
-            Thread.sleep(5000);
-            
-            Optional<Payment> paymentOpt = paymentRepository.findById(paymentId);
-            if (paymentOpt.isPresent()) {
-                Payment payment = paymentOpt.get();
-                if (payment.getStatus() == PaymentStatus.PENDING) {
-                    // Simulate payment success (90% success rate)
-                    PaymentStatus newStatus = Math.random() < 0.9 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
-                    payment.setStatus(newStatus);
-                    paymentRepository.save(payment);
-                }
+    /**
+     * Creates many pending payments at once. Dealers are checked with a single query for the whole batch,
+     * the valid rows are inserted through JDBC batching (one transaction per chunk, with one summary update
+     * per dealer) and settlement is enqueued for everything saved in one step. A bad row, or one beyond the
+     * scheduler's remaining capacity, is reported in its item instead of failing the batch.
+     */
+    public BulkResultDTO bulkInitiatePayments(List<PaymentRequestDTO> paymentRequests) {
+        BulkInsert<PaymentRequestDTO> bulk = new BulkInsert<>(paymentRequests, "payments");
+        Set<Long> existingDealerIds = bulk.existingIds(PaymentRequestDTO::getDealerId, dealerRepository::findExistingIds);
+        List<Integer> validIndexes = bulk.validate(request -> validateForBulk(request, existingDealerIds));
+        
+        int reserved = settlementScheduler.tryReserve(validIndexes.size());
+        for (Integer index : validIndexes.subList(reserved, validIndexes.size())) {
+            bulk.fail(index, "Too many payments awaiting settlement, retry later");
+        }
+        List<Integer> admitted = validIndexes.subList(0, reserved);
+        admitted.stream().map(index -> paymentRequests.get(index).getDealerId()).distinct()
+                .forEach(paymentSummaryService::ensureSummary);
+        
+        List<Payment> saved = bulk.insert(admitted, transactionTemplate, this::insertPendingPayments, Payment::getId);
+        settlementScheduler.release(admitted.size() - saved.size());
+        settlementScheduler.scheduleAll(saved.stream().map(Payment::getId).collect(Collectors.toList()));
+        return bulk.result();
+    }
+    
+    // Runs inside the chunk's transaction, with one summary update per dealer
+    private List<Payment> insertPendingPayments(List<PaymentRequestDTO> requests) {
+        List<Payment> inserted = paymentRepository.saveAll(requests.stream()
+                .map(request -> new Payment(request.getDealerId(), request.getAmount(), request.getMethod(),
+                        PaymentStatus.PENDING))
+                .collect(Collectors.toList()));
+        // In dealer id order so concurrent writers lock summary rows consistently
+        Map<Long, List<Payment>> byDealer = inserted.stream()
+                .collect(Collectors.groupingBy(Payment::getDealerId, TreeMap::new, Collectors.toList()));
+        byDealer.forEach((dealerId, dealerPayments) -> paymentSummaryService.recordCreatedForDealer(
+                dealerId, dealerPayments.size(), dealerPayments.stream()
+                        .map(Payment::getAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)));
+        return inserted;
+    }
+    
+    /**
+     * Charges a still-pending payment through the gateway and records the outcome. The payment is leased the
+     * same way a sweep leases its page before the gateway is called, so a payment the sweep is charging (or
+     * one already settled) is skipped rather than charged twice. The returned future completes once the
+     * outcome is stored, or exceptionally when the gateway gave none (the payment then stays PENDING for a
+     * retry or, once the lease runs out, the sweep).
+     */
+    public CompletableFuture<Void> settlePayment(Long paymentId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentRepository.leaseForSettlement(paymentId, now.plusSeconds(sweepLeaseSeconds), now) == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<Payment> pending = paymentRepository.findById(paymentId)
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING);
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Payment payment = pending.get();
+        return paymentGateway.charge(payment).thenAccept(outcome -> recordOutcome(payment, outcome));
+    }
+    
+    private void recordOutcome(Payment payment, PaymentStatus outcome) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = transactionTemplate.execute(status -> {
+            int settled = paymentRepository.settlePending(List.of(payment.getId()), outcome, now);
+            if (settled > 0) {
+                paymentSummaryService.recordTransition(payment.getDealerId(), PaymentStatus.PENDING, outcome, 1);
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            return settled;
+        });
+        if (updated > 0) {
+            payment.setStatus(outcome);
+            payment.setUpdatedAt(now);
+            announce(payment, PaymentStatus.PENDING);
         }
-        return CompletableFuture.completedFuture(null);
     }
     
-    // Scheduled task to process pending payments (backup mechanism)
-    @Scheduled(fixedRate = 30000) // Run every 30 seconds
+    /**
+     * Backup sweep for payments the settlement scheduler never finished (e.g. lost on restart).
+     *
+     * Each page is claimed with {@code FOR UPDATE SKIP LOCKED} and leased for {@code lease-seconds} in a short
+     * transaction of its own, so replicas running the same sweep split the backlog instead of racing over it
+     * and no row lock is held while the gateway is called. The page is charged with at most {@code max-in-flight}
+     * gateway calls outstanding (never more than the per-method bulkhead, so the sweep alone can't fill it and
+     * leave the settlement scheduler without slots), then the outcomes are written in a second transaction with
+     * one UPDATE per outcome, to the payments that are still PENDING. Payments the gateway turned away without
+     * calling the provider have their lease cleared so the next pass claims them again. A pass stops after
+     * {@code max-pass-ms}, or once the gateway leaves payments unsettled, and resumes on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.payment.sweep.interval-ms:30000}")
     public void processPendingPayments() {
-        LocalDateTime fiveSecondsAgo = LocalDateTime.now().minusSeconds(10);
-        List<Payment> pendingPayments = paymentRepository.findPendingPaymentsOlderThanFiveSeconds(fiveSecondsAgo);
+        long deadline = System.currentTimeMillis() + sweepMaxPassMillis;
+        SweepPage page;
+        do {
+            page = settlePendingPage();
+            // Announced only once the outcomes' transaction has committed
+            page.settled().forEach(payment -> announce(payment, PaymentStatus.PENDING));
+        } while (page.claimed() == sweepPageSize && page.charged() == page.claimed()
+                && System.currentTimeMillis() < deadline);
+    }
+    
+    private record SweepPage(int claimed, int charged, List<Payment> settled) {}
+    
+    private SweepPage settlePendingPage() {
+        LocalDateTime claimedAt = LocalDateTime.now();
+        List<Payment> claimed = transactionTemplate.execute(status -> {
+            List<Payment> page = paymentRepository.claimPendingPayments(
+                    claimedAt.minusSeconds(sweepMinAgeSeconds), claimedAt, PageRequest.of(0, sweepPageSize));
+            if (!page.isEmpty()) {
+                paymentRepository.leaseForSweep(page.stream().map(Payment::getId).toList(),
+                        claimedAt.plusSeconds(sweepLeaseSeconds));
+            }
+            return page;
+        });
         
-        for (Payment payment : pendingPayments) {
-            // Simulate payment processing result
-            PaymentStatus newStatus = Math.random() < 0.9 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
-            payment.setStatus(newStatus);
-            paymentRepository.save(payment);
+        // Blocks the sweep thread, not a request thread, until a call slot frees up
+        Semaphore inFlight = new Semaphore(Math.max(1, Math.min(sweepMaxInFlight, gatewayMaxConcurrent)));
+        Map<Payment, CompletableFuture<PaymentStatus>> charges = new LinkedHashMap<>();
+        for (Payment payment : claimed) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<PaymentStatus> charge = paymentGateway.charge(payment);
+            charge.whenComplete((outcome, error) -> inFlight.release());
+            charges.put(payment, charge);
+        }
+        CompletableFuture.allOf(charges.values().toArray(new CompletableFuture<?>[0]))
+                .exceptionally(error -> null)
+                .join();
+        // Payments the gateway gave no outcome for stay PENDING; those it may have charged are swept again once
+        // their lease runs out, those it never called are released now
+        Map<Long, PaymentStatus> outcomes = new LinkedHashMap<>();
+        List<Long> uncharged = new ArrayList<>();
+        charges.forEach((payment, charge) -> {
+            try {
+                outcomes.put(payment.getId(), charge.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof GatewayBulkheadFullException
+                        || e.getCause() instanceof CircuitBreakerOpenException) {
+                    uncharged.add(payment.getId());
+                }
+            }
+        });
+        if (!uncharged.isEmpty()) {
+            paymentRepository.releaseSweepLease(uncharged);
+        }
+        List<Payment> settled = outcomes.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> recordSweepOutcomes(outcomes, LocalDateTime.now()));
+        return new SweepPage(claimed.size(), outcomes.size(), settled);
+    }
+    
+    // Writes the outcomes of the payments still PENDING; one settled or overridden meanwhile is left alone
+    private List<Payment> recordSweepOutcomes(Map<Long, PaymentStatus> outcomes, LocalDateTime now) {
+        // Locked so the summary counts below match the rows the updates move
+        Map<PaymentStatus, List<Payment>> byOutcome = new EnumMap<>(PaymentStatus.class);
+        paymentRepository.lockPendingByIdIn(outcomes.keySet()).forEach(payment -> byOutcome
+                .computeIfAbsent(outcomes.get(payment.getId()), outcome -> new ArrayList<>())
+                .add(payment));
+        byOutcome.forEach((outcome, payments) ->
+                paymentRepository.settlePending(payments.stream().map(Payment::getId).toList(), outcome, now));
+        // One summary update per dealer, in dealer id order so concurrent sweeps lock summary rows consistently
+        Map<Long, Map<PaymentStatus, Long>> outcomesByDealer = new TreeMap<>();
+        byOutcome.forEach((outcome, payments) -> payments.forEach(payment -> outcomesByDealer
+                .computeIfAbsent(payment.getDealerId(), id -> new EnumMap<>(PaymentStatus.class))
+                .merge(outcome, 1L, Long::sum)));
+        outcomesByDealer.forEach((dealerId, counts) -> paymentSummaryService.recordSettledForDealer(dealerId,
+                counts.getOrDefault(PaymentStatus.SUCCESS, 0L), counts.getOrDefault(PaymentStatus.FAILED, 0L)));
+        // The updates cleared the persistence context, so these copies are detached and only mirror the new rows
+        List<Payment> settled = new ArrayList<>();
+        byOutcome.forEach((outcome, payments) -> payments.forEach(payment -> {
+            payment.setStatus(outcome);
+            payment.setUpdatedAt(now);
+            settled.add(payment);
+        }));
+        return settled;
+    }
+    
+    // Tells stream subscribers and long-poll waiters about a committed status change
+    private void announce(Payment payment, PaymentStatus previousStatus) {
+        paymentEventPublisher.publish(PaymentStatusEventDTO.of(payment, previousStatus, payment.getStatus(),
+                payment.getUpdatedAt()));
+        if (payment.getStatus() != PaymentStatus.PENDING && paymentAwaitRegistry.hasWaiters(payment.getId())) {
+            paymentAwaitRegistry.complete(convertToResponseDTO(payment));
         }
     }
     
+    /**
+     * Moves a payment to {@code status} if the transition table allows it. The write is a single conditional
+     * UPDATE on the version that was read, so a settlement or another override landing in between (even one
+     * that left the payment in the status read) is reported as a conflict instead of being overwritten. A failed
+     * payment moved back to PENDING is settled again.
+     */
     public PaymentResponseDTO updatePaymentStatus(Long id, PaymentStatus status) {
         Optional<Payment> paymentOpt = paymentRepository.findById(id);
         if (!paymentOpt.isPresent()) {
@@ -117,9 +465,52 @@ public class PaymentService {
         }
         
         Payment payment = paymentOpt.get();
+        PaymentStatus previousStatus = payment.getStatus();
+        if (previousStatus == status) {
+            return convertToResponseDTO(payment);
+        }
+        if (!previousStatus.canTransitionTo(status)) {
+            throw new PaymentStatusConflictException(
+                    "Payment with id " + id + " cannot move from " + previousStatus + " to " + status);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean updated = transactionTemplate.execute(txStatus -> {
+            if (paymentRepository.transition(id, previousStatus, payment.getVersion(), status, now) == 0) {
+                return false;
+            }
+            paymentSummaryService.recordTransition(payment.getDealerId(), previousStatus, status, 1);
+            return true;
+        });
+        if (!updated) {
+            throw new PaymentStatusConflictException(
+                    "Payment with id " + id + " was changed concurrently; read it again before changing its status");
+        }
         payment.setStatus(status);
-        Payment savedPayment = paymentRepository.save(payment);
-        return convertToResponseDTO(savedPayment);
+        payment.setUpdatedAt(now);
+        payment.setVersion(payment.getVersion() + 1);
+        announce(payment, previousStatus);
+        // A retried payment is settled again now; without capacity the sweep picks it up
+        if (status == PaymentStatus.PENDING && settlementScheduler.tryReserve()) {
+            settlementScheduler.schedule(id);
+        }
+        return convertToResponseDTO(payment);
+    }
+    
+    private String validateForBulk(PaymentRequestDTO paymentRequest, Set<Long> existingDealerIds) {
+        if (paymentRequest == null) {
+            return "Payment is required";
+        }
+        Set<ConstraintViolation<PaymentRequestDTO>> violations = validator.validate(paymentRequest);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!existingDealerIds.contains(paymentRequest.getDealerId())) {
+            return "Dealer with id " + paymentRequest.getDealerId() + " not found";
+        }
+        return null;
     }
     
     private PaymentResponseDTO convertToResponseDTO(Payment payment) {
@@ -0,0 +1,220 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Settles payments a fixed delay after they are initiated without holding a thread per payment.
+ *
+ * Pending settlements are timer entries (payment ids in a single-threaded scheduler's delay queue);
+ * when one comes due it is handed to a small worker pool with a bounded queue, which starts the gateway
+ * call and moves on. Admission is capped at {@code max-in-flight} (counting payments whose gateway call is
+ * still outstanding) so callers get backpressure rather than an ever-growing backlog. Anything
+ * that never settles here (e.g. lost on restart) is still picked up by the pending-payment sweep.
+ */
+@Component
+public class PaymentSettlementScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentSettlementScheduler.class);
+    
+    // How long a due settlement waits before retrying when the worker queue or gateway bulkhead is full
+    private static final long WORKER_QUEUE_FULL_RETRY_MILLIS = 200;
+    
+    private final Function<Long, CompletableFuture<?>> settler;
+    private final long delayMillis;
+    private final int maxInFlight;
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter deferred;
+    
+    @Autowired
+    public PaymentSettlementScheduler(@Lazy PaymentService paymentService,
+                                      @Value("${app.payment.settlement.delay-ms:5000}") long delayMillis,
+                                      @Value("${app.payment.settlement.workers:4}") int workerCount,
+                                      @Value("${app.payment.settlement.queue-capacity:1000}") int queueCapacity,
+                                      @Value("${app.payment.settlement.max-in-flight:100000}") int maxInFlight,
+                                      MeterRegistry meterRegistry) {
+        this(paymentService::settlePayment, delayMillis, workerCount, queueCapacity, maxInFlight, meterRegistry);
+    }
+    
+    PaymentSettlementScheduler(Function<Long, CompletableFuture<?>> settler, long delayMillis, int workerCount,
+                               int queueCapacity, int maxInFlight, MeterRegistry meterRegistry) {
+        this.settler = settler;
+        this.delayMillis = delayMillis;
+        this.maxInFlight = maxInFlight;
+        this.timer = Executors.newSingleThreadScheduledExecutor(threadFactory("payment-settlement-timer"));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("payment-settlement-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        Gauge.builder("payments.settlement.in_flight", inFlight, AtomicInteger::get)
+                .description("Payments admitted and not yet settled")
+                .register(meterRegistry);
+        Gauge.builder("payments.settlement.queued", workers, executor -> executor.getQueue().size())
+                .description("Due settlements waiting for a worker")
+                .register(meterRegistry);
+        this.completed = meterRegistry.counter("payments.settlement.completed");
+        this.failed = meterRegistry.counter("payments.settlement.failed");
+        this.rejected = meterRegistry.counter("payments.settlement.rejected");
+        this.deferred = meterRegistry.counter("payments.settlement.deferred");
+    }
+    
+    /**
+     * Reserves room for one settlement; returns {@code false} when the scheduler is full.
+     * A successful reservation must be followed by {@link #schedule} or {@link #release}.
+     */
+    public boolean tryReserve() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Reserves room for up to {@code permits} settlements at once and returns how many were granted,
+     * which is fewer when the scheduler fills up. Each granted reservation is owed a {@link #schedule}
+     * (or {@link #scheduleAll}) or a {@link #release}.
+     */
+    public int tryReserve(int permits) {
+        while (true) {
+            int current = inFlight.get();
+            int granted = Math.max(0, Math.min(permits, maxInFlight - current));
+            if (granted == 0 || inFlight.compareAndSet(current, current + granted)) {
+                if (granted < permits) {
+                    rejected.increment(permits - granted);
+                }
+                return granted;
+            }
+        }
+    }
+    
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+    
+    public void release(int permits) {
+        inFlight.addAndGet(-permits);
+    }
+    
+    /**
+     * Settles the payment after the configured delay, using a reservation taken with {@link #tryReserve}.
+     */
+    public void schedule(Long paymentId) {
+        schedule(paymentId, delayMillis);
+    }
+    
+    /**
+     * Settles a batch of payments after the configured delay with a single timer entry, using one
+     * reservation per payment.
+     */
+    public void scheduleAll(List<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        try {
+            timer.schedule(() -> paymentIds.forEach(this::dispatch), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            release(paymentIds.size());
+        }
+    }
+    
+    public int inFlight() {
+        return inFlight.get();
+    }
+    
+    private void schedule(Long paymentId, long delay) {
+        try {
+            timer.schedule(() -> dispatch(paymentId), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the pending-payment sweep settles it after restart
+            release();
+        }
+    }
+    
+    private void dispatch(Long paymentId) {
+        try {
+            workers.execute(() -> settle(paymentId));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                release();
+                return;
+            }
+            deferred.increment();
+            schedule(paymentId, WORKER_QUEUE_FULL_RETRY_MILLIS);
+        }
+    }
+    
+    private void settle(Long paymentId) {
+        CompletableFuture<?> settlement;
+        try {
+            settlement = settler.apply(paymentId);
+        } catch (RuntimeException e) {
+            settlement = CompletableFuture.failedFuture(e);
+        }
+        // The reservation is held until the gateway answers, so max-in-flight also bounds calls awaiting the gateway
+        settlement.whenComplete((result, error) -> onSettled(paymentId, error));
+    }
+    
+    private void onSettled(Long paymentId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            completed.increment();
+        } else if (cause instanceof GatewayBulkheadFullException) {
+            // The gateway was never called; keep the reservation and try again shortly
+            deferred.increment();
+            schedule(paymentId, WORKER_QUEUE_FULL_RETRY_MILLIS);
+            return;
+        } else {
+            failed.increment();
+            log.warn("Settlement of payment {} failed; leaving it for the pending-payment sweep", paymentId, cause);
+        }
+        release();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+    
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
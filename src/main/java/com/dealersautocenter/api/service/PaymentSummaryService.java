@@ -0,0 +1,228 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.dto.PaymentSummaryDTO;
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.entity.PaymentSummary;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.PaymentRepository;
+import com.dealersautocenter.api.repository.PaymentSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-dealer payment totals kept in {@code payment_summaries}.
+ *
+ * {@link PaymentService} applies a relative delta in the same transaction as each payment insert or status change,
+ * so the summary endpoints read one row per dealer instead of grouping the payments table. The reconciliation job
+ * rebuilds each row from the payments table under a row lock, correcting drift from writes that bypass the service.
+ */
+@Service
+public class PaymentSummaryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentSummaryService.class);
+    
+    @Autowired
+    private PaymentSummaryRepository paymentSummaryRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private DealerCache dealerCache;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Dealers whose summary row is known to exist, so ensureSummary() is a set lookup after the first payment
+    private final Set<Long> summarizedDealerIds = ConcurrentHashMap.newKeySet();
+    
+    public Optional<PaymentSummaryDTO> getSummary(Long dealerId) {
+        Optional<DealerDTO> dealer = dealerCache.findById(dealerId);
+        if (dealer.isEmpty()) {
+            return Optional.empty();
+        }
+        PaymentSummary summary = paymentSummaryRepository.findById(dealerId)
+                .orElseGet(() -> new PaymentSummary(dealerId));
+        return Optional.of(convertToDTO(summary, dealer.get()));
+    }
+    
+    public List<PaymentSummaryDTO> getAllSummaries() {
+        return paymentSummaryRepository.findAllByOrderByDealerIdAsc().stream()
+                .map(summary -> dealerCache.findById(summary.getDealerId())
+                        .map(dealer -> convertToDTO(summary, dealer))
+                        .orElse(null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Creates the dealer's summary row if needed. Runs in its own transaction, before the payment's,
+     * so a concurrent insert by another node can't abort the payment transaction.
+     */
+    public void ensureSummary(Long dealerId) {
+        if (summarizedDealerIds.contains(dealerId)) {
+            return;
+        }
+        if (!paymentSummaryRepository.existsById(dealerId)) {
+            try {
+                paymentSummaryRepository.save(new PaymentSummary(dealerId));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently
+            }
+        }
+        summarizedDealerIds.add(dealerId);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Payment payment) {
+        PaymentStatus status = payment.getStatus();
+        paymentSummaryRepository.applyDelta(payment.getDealerId(), 1, payment.getAmount(),
+                delta(PaymentStatus.PENDING, null, status, 1),
+                delta(PaymentStatus.SUCCESS, null, status, 1),
+                delta(PaymentStatus.FAILED, null, status, 1),
+                LocalDateTime.now());
+    }
+    
+    /**
+     * Records {@code payments} new pending payments of one dealer, totalling {@code amount}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreatedForDealer(Long dealerId, long payments, BigDecimal amount) {
+        paymentSummaryRepository.applyDelta(dealerId, payments, amount, payments, 0, 0, LocalDateTime.now());
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long dealerId, PaymentStatus from, PaymentStatus to, long payments) {
+        paymentSummaryRepository.applyDelta(dealerId, 0, BigDecimal.ZERO,
+                delta(PaymentStatus.PENDING, from, to, payments),
+                delta(PaymentStatus.SUCCESS, from, to, payments),
+                delta(PaymentStatus.FAILED, from, to, payments),
+                LocalDateTime.now());
+    }
+    
+    /**
+     * Records pending payments of one dealer settling as {@code succeeded} successes and {@code failed} failures.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSettledForDealer(Long dealerId, long succeeded, long failed) {
+        paymentSummaryRepository.applyDelta(dealerId, 0, BigDecimal.ZERO, -(succeeded + failed), succeeded, failed,
+                LocalDateTime.now());
+    }
+    
+    public void onDealerDeleted(Long dealerId) {
+        summarizedDealerIds.remove(dealerId);
+        if (paymentSummaryRepository.existsById(dealerId)) {
+            paymentSummaryRepository.deleteById(dealerId);
+        }
+    }
+    
+    // Dealers that existed before summaries did (or whose row was lost) get one on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeMissing() {
+        List<Long> dealerIds = paymentSummaryRepository.findDealerIdsWithoutSummary();
+        dealerIds.forEach(this::rebuild);
+        if (!dealerIds.isEmpty()) {
+            log.info("Built payment summaries for {} dealers", dealerIds.size());
+        }
+    }
+    
+    /**
+     * Rebuilds every dealer's summary from the payments table, one dealer per transaction, and drops rows
+     * of deleted dealers. Returns the number of rows that had drifted.
+     */
+    @Scheduled(cron = "${app.payment.summary.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long started = System.currentTimeMillis();
+        for (Long orphanId : paymentSummaryRepository.findOrphanedDealerIds()) {
+            onDealerDeleted(orphanId);
+        }
+        int corrected = 0;
+        List<Long> dealerIds = dealerRepository.findAllIds();
+        for (Long dealerId : dealerIds) {
+            if (rebuild(dealerId)) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.warn("Payment summary reconciliation corrected {} of {} dealers in {} ms",
+                    corrected, dealerIds.size(), System.currentTimeMillis() - started);
+        } else {
+            log.info("Payment summary reconciliation checked {} dealers in {} ms",
+                    dealerIds.size(), System.currentTimeMillis() - started);
+        }
+        return corrected;
+    }
+    
+    private boolean rebuild(Long dealerId) {
+        ensureSummary(dealerId);
+        Boolean changed = transactionTemplate.execute(status -> {
+            // Holding the row lock while aggregating keeps concurrent deltas from landing in between
+            Optional<PaymentSummary> locked = paymentSummaryRepository.lockByDealerId(dealerId);
+            if (locked.isEmpty()) {
+                return false;
+            }
+            PaymentSummary summary = locked.get();
+            Object[] row = paymentRepository.summarizeByDealerId(dealerId).get(0);
+            long totalCount = ((Number) row[0]).longValue();
+            BigDecimal totalAmount = new BigDecimal(row[1].toString());
+            long pendingCount = ((Number) row[2]).longValue();
+            long successCount = ((Number) row[3]).longValue();
+            long failedCount = ((Number) row[4]).longValue();
+            if (summary.getTotalCount() == totalCount
+                    && summary.getTotalAmount().compareTo(totalAmount) == 0
+                    && summary.getPendingCount() == pendingCount
+                    && summary.getSuccessCount() == successCount
+                    && summary.getFailedCount() == failedCount) {
+                return false;
+            }
+            summary.setTotalCount(totalCount);
+            summary.setTotalAmount(totalAmount);
+            summary.setPendingCount(pendingCount);
+            summary.setSuccessCount(successCount);
+            summary.setFailedCount(failedCount);
+            summary.setUpdatedAt(LocalDateTime.now());
+            return true;
+        });
+        return Boolean.TRUE.equals(changed);
+    }
+    
+    private static long delta(PaymentStatus counted, PaymentStatus from, PaymentStatus to, long payments) {
+        return (to == counted ? payments : 0) - (from == counted ? payments : 0);
+    }
+    
+    private PaymentSummaryDTO convertToDTO(PaymentSummary summary, DealerDTO dealer) {
+        return new PaymentSummaryDTO(
+            summary.getDealerId(),
+            dealer.getName(),
+            dealer.getSubscriptionType(),
+            summary.getTotalCount(),
+            summary.getTotalAmount(),
+            summary.getSuccessCount(),
+            summary.getFailedCount(),
+            summary.getPendingCount(),
+            summary.getUpdatedAt()
+        );
+    }
+}
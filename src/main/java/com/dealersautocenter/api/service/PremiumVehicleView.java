@@ -0,0 +1,212 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed list of vehicles that belong to PREMIUM dealers, kept current by the dealer and
+ * vehicle write paths so the premium storefront endpoint never has to query the database.
+ *
+ * Reads are lock-free; writes are rare and serialised by a single lock. The view is also rebuilt from the
+ * database every {@code rebuild-interval-ms} so that writes made on other instances become visible within
+ * that interval. A rebuild loads a fresh copy without holding the write lock, replays onto it the writes made
+ * meanwhile, and swaps it in, so writers are not held up by the load and readers never see a partial view.
+ */
+@Component
+public class PremiumVehicleView {
+    
+    private static final Logger log = LoggerFactory.getLogger(PremiumVehicleView.class);
+    
+    private static final int REBUILD_DEALER_CHUNK_SIZE = 1000;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    private volatile View view = new View();
+    // Writes made while a rebuild loads its copy, replayed onto that copy before the swap; guarded by writeLock
+    private List<Consumer<View>> writesDuringRebuild;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Keeps the startup and scheduled rebuilds from overlapping
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.vehicle.premium-view.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.vehicle.premium-view.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                writesDuringRebuild = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+            View next = null;
+            try {
+                next = load();
+            } finally {
+                writeLock.lock();
+                try {
+                    if (next != null) {
+                        for (Consumer<View> write : writesDuringRebuild) {
+                            write.accept(next);
+                        }
+                        view = next;
+                        ready = true;
+                    }
+                    writesDuringRebuild = null;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+            log.info("Premium vehicle view holds {} vehicles from {} dealers",
+                    next.vehiclesById.size(), next.premiumDealerIds.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    public List<VehicleDTO> getVehicles() {
+        if (!ready) {
+            Set<Long> dealerIds = dealerRepository.findBySubscriptionType(SubscriptionType.PREMIUM).stream()
+                    .map(Dealer::getId)
+                    .collect(Collectors.toSet());
+            return dealerIds.isEmpty() ? new ArrayList<>() : vehicleRepository.findVehicleDTOsByDealerIdIn(dealerIds);
+        }
+        return new ArrayList<>(view.vehiclesById.values());
+    }
+    
+    public void onDealerSaved(DealerDTO dealer) {
+        writeLock.lock();
+        try {
+            Long dealerId = dealer.getId();
+            // Newly upgraded: its current vehicles are pulled in once
+            List<VehicleDTO> vehicles = dealer.getSubscriptionType() == SubscriptionType.PREMIUM
+                    && !view.premiumDealerIds.contains(dealerId)
+                    ? vehicleRepository.findVehicleDTOsByDealerId(dealerId) : List.of();
+            write(current -> current.saveDealer(dealer, vehicles));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    public void onDealerDeleted(Long dealerId) {
+        write(current -> current.removeDealer(dealerId));
+    }
+    
+    public void onVehicleSaved(VehicleDTO vehicle) {
+        write(current -> current.saveVehicle(vehicle));
+    }
+    
+    public void onVehicleDeleted(Long vehicleId) {
+        write(current -> current.unindex(vehicleId));
+    }
+    
+    private void write(Consumer<View> change) {
+        writeLock.lock();
+        try {
+            change.accept(view);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private View load() {
+        View loaded = new View();
+        dealerRepository.findBySubscriptionType(SubscriptionType.PREMIUM).forEach(
+                dealer -> loaded.premiumDealerIds.add(dealer.getId()));
+        // Looked up in chunks so the IN list stays under the database's bind parameter limit
+        List<Long> dealerIds = new ArrayList<>(loaded.premiumDealerIds);
+        for (int from = 0; from < dealerIds.size(); from += REBUILD_DEALER_CHUNK_SIZE) {
+            List<Long> chunk = dealerIds.subList(from, Math.min(from + REBUILD_DEALER_CHUNK_SIZE, dealerIds.size()));
+            vehicleRepository.findVehicleDTOsByDealerIdIn(chunk).forEach(loaded::index);
+        }
+        return loaded;
+    }
+    
+    private static VehicleDTO withDealer(VehicleDTO vehicle, DealerDTO dealer) {
+        return new VehicleDTO(vehicle.getId(), vehicle.getDealerId(), vehicle.getModel(), vehicle.getPrice(),
+                vehicle.getStatus(), dealer.getName(), dealer.getEmail());
+    }
+    
+    // One copy of the view; only changed under writeLock, apart from reads of vehiclesById
+    private static final class View {
+        
+        final Set<Long> premiumDealerIds = ConcurrentHashMap.newKeySet();
+        final Map<Long, Set<Long>> vehicleIdsByDealer = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, VehicleDTO> vehiclesById = new ConcurrentSkipListMap<>();
+        
+        void saveDealer(DealerDTO dealer, List<VehicleDTO> vehiclesIfUpgraded) {
+            Long dealerId = dealer.getId();
+            if (dealer.getSubscriptionType() != SubscriptionType.PREMIUM) {
+                removeDealer(dealerId);
+            } else if (premiumDealerIds.add(dealerId)) {
+                vehiclesIfUpgraded.forEach(this::index);
+            } else {
+                // Still premium; refresh the denormalised dealer name and email
+                for (Long vehicleId : vehicleIdsByDealer.getOrDefault(dealerId, Set.of())) {
+                    vehiclesById.computeIfPresent(vehicleId, (id, vehicle) -> withDealer(vehicle, dealer));
+                }
+            }
+        }
+        
+        void removeDealer(Long dealerId) {
+            premiumDealerIds.remove(dealerId);
+            Set<Long> vehicleIds = vehicleIdsByDealer.remove(dealerId);
+            if (vehicleIds != null) {
+                vehicleIds.forEach(vehiclesById::remove);
+            }
+        }
+        
+        void saveVehicle(VehicleDTO vehicle) {
+            unindex(vehicle.getId());
+            if (premiumDealerIds.contains(vehicle.getDealerId())) {
+                index(vehicle);
+            }
+        }
+        
+        void index(VehicleDTO vehicle) {
+            vehiclesById.put(vehicle.getId(), vehicle);
+            vehicleIdsByDealer.computeIfAbsent(vehicle.getDealerId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(vehicle.getId());
+        }
+        
+        void unindex(Long vehicleId) {
+            VehicleDTO previous = vehiclesById.remove(vehicleId);
+            if (previous != null) {
+                vehicleIdsByDealer.computeIfPresent(previous.getDealerId(), (id, vehicleIds) -> {
+                    vehicleIds.remove(vehicleId);
+                    return vehicleIds.isEmpty() ? null : vehicleIds;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory trigram inverted index over vehicle models, used by the model search endpoint
+ * instead of a {@code LIKE '%...%'} table scan.
+ *
+ * Trigrams (taken from the lower-cased model) point at distinct model names rather than vehicle ids, since a large
+ * catalog repeats the same model many times; each distinct model then maps to its vehicle ids.
+ *
+ * The vehicle write paths keep the index current on this instance. It is also rebuilt from the database every
+ * {@code rebuild-interval-ms} into a fresh copy that is then swapped in, so writes made on other instances (or
+ * directly in SQL) show up within that interval.
+ */
+@Component
+public class VehicleModelIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(VehicleModelIndex.class);
+    
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_PAGE_SIZE = 10000;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    private volatile Postings postings = new Postings();
+    // The copy being loaded by a rebuild, which must also receive writes made meanwhile
+    private volatile Postings rebuilding;
+    // Keeps the startup and scheduled rebuilds from overlapping
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.vehicle.model-index.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.vehicle.model-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            Postings next = new Postings();
+            rebuilding = next;
+            long afterId = 0L;
+            int indexed = 0;
+            List<Object[]> page;
+            do {
+                page = vehicleRepository.findIdAndModelPageAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    afterId = (Long) row[0];
+                    next.put(afterId, (String) row[1]);
+                }
+                indexed += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            postings = next;
+            rebuilding = null;
+            ready = true;
+            log.info("Indexed {} vehicle models ({} distinct) in {} ms",
+                    indexed, next.idsByModel.size(), System.currentTimeMillis() - started);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public void put(Long vehicleId, String model) {
+        // The copy being rebuilt first, so a rebuild that swaps it in meanwhile does not lose the write
+        Postings next = rebuilding;
+        if (next != null) {
+            next.put(vehicleId, model);
+        }
+        postings.put(vehicleId, model);
+    }
+    
+    public void remove(Long vehicleId) {
+        Postings next = rebuilding;
+        if (next != null) {
+            next.remove(vehicleId);
+        }
+        postings.remove(vehicleId);
+    }
+    
+    /**
+     * Returns up to {@code limit} vehicle ids whose model contains {@code query}, ordered by id,
+     * or by match quality when {@code ranked} is set.
+     */
+    public List<Long> search(String query, boolean ignoreCase, boolean ranked, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Postings current = postings;
+        String needle = ignoreCase ? query.toLowerCase(Locale.ROOT) : query;
+        List<String> matches = new ArrayList<>();
+        for (String model : current.candidates(query.toLowerCase(Locale.ROOT))) {
+            String haystack = ignoreCase ? model.toLowerCase(Locale.ROOT) : model;
+            if (haystack.contains(needle)) {
+                matches.add(model);
+            }
+        }
+        return ranked ? rankedIds(current, matches, query, limit) : lowestIds(current, matches, limit);
+    }
+    
+    public int size() {
+        return postings.modelsById.size();
+    }
+    
+    private static List<Long> lowestIds(Postings postings, List<String> models, int limit) {
+        // Max-heap of the smallest ids seen so far
+        PriorityQueue<Long> heap = new PriorityQueue<>(Comparator.reverseOrder());
+        for (String model : models) {
+            // Each model's ids are sorted, so stop as soon as one cannot beat the current heap
+            for (Long id : postings.idsByModel.getOrDefault(model, Collections.emptyNavigableSet())) {
+                if (heap.size() < limit) {
+                    heap.add(id);
+                } else if (id < heap.peek()) {
+                    heap.poll();
+                    heap.add(id);
+                } else {
+                    break;
+                }
+            }
+        }
+        List<Long> ids = new ArrayList<>(heap);
+        Collections.sort(ids);
+        return ids;
+    }
+    
+    private static List<Long> rankedIds(Postings postings, List<String> models, String query, int limit) {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        models.sort(Comparator
+                .comparingInt((String model) -> matchRank(model.toLowerCase(Locale.ROOT), lowerQuery))
+                .thenComparingInt(model -> model.toLowerCase(Locale.ROOT).indexOf(lowerQuery))
+                .thenComparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder()));
+        List<Long> ids = new ArrayList<>();
+        for (String model : models) {
+            for (Long id : postings.idsByModel.getOrDefault(model, Collections.emptyNavigableSet())) {
+                if (ids.size() == limit) {
+                    return ids;
+                }
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+    
+    // 0 = exact, 1 = prefix, 2 = start of a word, 3 = anywhere
+    private static int matchRank(String model, String query) {
+        if (model.equals(query)) {
+            return 0;
+        }
+        if (model.startsWith(query)) {
+            return 1;
+        }
+        int position = model.indexOf(query);
+        if (position > 0 && !Character.isLetterOrDigit(model.charAt(position - 1))) {
+            return 2;
+        }
+        return 3;
+    }
+    
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+    
+    // The index proper; a rebuild fills a fresh one while searches keep reading the current one
+    private static final class Postings {
+        
+        private final Map<Long, String> modelsById = new ConcurrentHashMap<>();
+        private final Map<String, NavigableSet<Long>> idsByModel = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> modelsByGram = new ConcurrentHashMap<>();
+        
+        void put(Long vehicleId, String model) {
+            // compute() serialises concurrent writes for the same vehicle id
+            modelsById.compute(vehicleId, (id, previous) -> {
+                if (previous != null) {
+                    unlink(id, previous);
+                }
+                link(id, model);
+                return model;
+            });
+        }
+        
+        void remove(Long vehicleId) {
+            modelsById.computeIfPresent(vehicleId, (id, previous) -> {
+                unlink(id, previous);
+                return null;
+            });
+        }
+        
+        private Set<String> candidates(String lowerQuery) {
+            if (lowerQuery.length() < GRAM_LENGTH) {
+                return idsByModel.keySet();
+            }
+            List<Set<String>> postings = new ArrayList<>();
+            for (String gram : grams(lowerQuery)) {
+                Set<String> posting = modelsByGram.get(gram);
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<String> result = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+                result.retainAll(postings.get(i));
+            }
+            return result;
+        }
+        
+        private void link(Long vehicleId, String model) {
+            idsByModel.compute(model, (key, ids) -> {
+                if (ids == null) {
+                    ids = new ConcurrentSkipListSet<>();
+                    for (String gram : grams(key.toLowerCase(Locale.ROOT))) {
+                        modelsByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                    }
+                }
+                ids.add(vehicleId);
+                return ids;
+            });
+        }
+        
+        private void unlink(Long vehicleId, String model) {
+            idsByModel.computeIfPresent(model, (key, ids) -> {
+                ids.remove(vehicleId);
+                if (!ids.isEmpty()) {
+                    return ids;
+                }
+                for (String gram : grams(key.toLowerCase(Locale.ROOT))) {
+                    modelsByGram.computeIfPresent(gram, (g, models) -> {
+                        models.remove(key);
+                        return models.isEmpty() ? null : models;
+                    });
+                }
+                return null;
+            });
+        }
+    }
+}
@@ -1,70 +1,243 @@
 package com.dealersautocenter.api.service;
 
+import com.dealersautocenter.api.config.ReplicaRead;
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.CursorPageDTO;
 import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.dto.VehicleQueryResultDTO;
 import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
 import com.dealersautocenter.api.entity.Vehicle;
 import com.dealersautocenter.api.entity.VehicleStatus;
 import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleQueryRepository;
 import com.dealersautocenter.api.repository.VehicleRepository;
+import com.dealersautocenter.api.repository.VehicleSpecifications;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class VehicleService {
     
+    // Rows written between persistence context clears during an export
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    
+    private static final int MAX_MODEL_LENGTH = 255;
+    
+    // Ids fetched per query when loading search results
+    private static final int SEARCH_LOOKUP_CHUNK_SIZE = 1000;
+    
     @Autowired
     private VehicleRepository vehicleRepository;
     
     @Autowired
     private DealerRepository dealerRepository;
     
-    public List<VehicleDTO> getAllVehicles() {
-        return vehicleRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private DealerCache dealerCache;
+    
+    @Autowired
+    private VehicleModelIndex vehicleModelIndex;
+    
+    @Autowired
+    private PremiumVehicleView premiumVehicleView;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public CursorPageDTO<VehicleDTO> getAllVehicles(int limit, String after) {
+        int pageSize = CursorCodec.clampLimit(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<VehicleDTO> rows = after == null
+                ? vehicleRepository.findVehicleDTOPage(page)
+                : vehicleRepository.findVehicleDTOPageAfter(CursorCodec.decodeId(after), page);
+        return CursorPageDTO.of(rows, pageSize, vehicle -> CursorCodec.encodeId(vehicle.getId()));
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public Optional<VehicleDTO> getVehicleById(Long id) {
-        return vehicleRepository.findById(id)
-                .map(this::convertToDTO);
+        return vehicleRepository.findVehicleDTOById(id);
     }
     
+    // Read from the primary, like its ETag below, so a 304 never vouches for a list read from a lagging replica
     public List<VehicleDTO> getVehiclesByDealerId(Long dealerId) {
-        return vehicleRepository.findByDealerId(dealerId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return vehicleRepository.findVehicleDTOsByDealerId(dealerId);
+    }
+    
+    /**
+     * Strong ETag for {@code GET /api/vehicles/dealer/{dealerId}}, from the vehicle count and
+     * latest {@code updatedAt} plus the dealer's own version, since the list embeds dealer details.
+     * All three come from one primary query, never from the node-local dealer cache.
+     */
+    public String getVehiclesByDealerIdETag(Long dealerId) {
+        List<Object[]> rows = vehicleRepository.findVehicleListVersionByDealerId(dealerId);
+        Object[] version = rows.isEmpty() ? new Object[] {0L, null, null} : rows.get(0);
+        return ETags.of("dealer-vehicles", dealerId, version[0], version[1], version[2]);
     }
     
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<VehicleDTO> getVehiclesByStatus(VehicleStatus status) {
-        return vehicleRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return vehicleRepository.findVehicleDTOsByStatus(status);
     }
     
     public List<VehicleDTO> getVehiclesByPremiumDealers() {
-        return vehicleRepository.findAllVehiclesFromPremiumDealers().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return premiumVehicleView.getVehicles();
     }
     
-    public List<VehicleDTO> searchVehiclesByModel(String model) {
-        return vehicleRepository.findByModelContaining(model).stream()
-                .map(this::convertToDTO)
+    /**
+     * Vehicles whose model contains the given text, at most {@code limit} of them (clamped to 1-500),
+     * or every match when {@code limit} is null.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public List<VehicleDTO> searchVehiclesByModel(String model, boolean ignoreCase, boolean ranked, Integer limit) {
+        if (!vehicleModelIndex.isReady()) {
+            // Index is still warming up after startup; fall back to the LIKE scan
+            Pageable page = limit == null ? Pageable.unpaged() : PageRequest.of(0, CursorCodec.clampLimit(limit));
+            return ignoreCase
+                    ? vehicleRepository.findVehicleDTOsByModelContainingIgnoreCase(model, page)
+                    : vehicleRepository.findVehicleDTOsByModelContaining(model, page);
+        }
+        
+        int maxResults = limit == null ? Integer.MAX_VALUE : CursorCodec.clampLimit(limit);
+        List<Long> ids = vehicleModelIndex.search(model, ignoreCase, ranked, maxResults);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Looked up in chunks so an unbounded search stays under the database's bind parameter limit
+        Map<Long, VehicleDTO> vehiclesById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += SEARCH_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SEARCH_LOOKUP_CHUNK_SIZE, ids.size()));
+            for (VehicleDTO vehicle : vehicleRepository.findVehicleDTOsByIdIn(chunk)) {
+                vehiclesById.put(vehicle.getId(), vehicle);
+            }
+        }
+        return ids.stream()
+                .map(vehiclesById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Filters vehicles by any mix of criteria in one statement, which also counts the whole filtered
+     * set per status and dealer subscription type.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public VehicleQueryResultDTO queryVehicles(Long dealerId, VehicleStatus status, BigDecimal minPrice,
+                                               BigDecimal maxPrice, String model,
+                                               SubscriptionType subscriptionType, int limit, String after) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        int pageSize = CursorCodec.clampLimit(limit);
+        Specification<Vehicle> filters = Specification.where(VehicleSpecifications.hasDealer(dealerId))
+                .and(VehicleSpecifications.hasStatus(status))
+                .and(VehicleSpecifications.priceAtLeast(minPrice))
+                .and(VehicleSpecifications.priceAtMost(maxPrice))
+                .and(VehicleSpecifications.modelContains(model))
+                .and(VehicleSpecifications.dealerSubscription(subscriptionType));
+        
+        VehicleQueryRepository.VehiclePage page = vehicleRepository.findVehiclePage(
+                filters, after == null ? null : CursorCodec.decodeId(after), pageSize + 1);
+        CursorPageDTO<VehicleDTO> items = CursorPageDTO.of(page.vehicles(), pageSize,
+                vehicle -> CursorCodec.encodeId(vehicle.getId()));
+        return new VehicleQueryResultDTO(items, page.totalCount(), page.statusCounts(), page.subscriptionTypeCounts());
+    }
+    
+    /**
+     * Streams every vehicle as one JSON object per line, reading through a server-side cursor
+     * so memory stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public void exportVehicles(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(VehicleDTO.class);
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try (Stream<Vehicle> vehicles = vehicleRepository.streamAllForExport()) {
+            Iterator<Vehicle> iterator = vehicles.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(convertToExportDTO(iterator.next())));
+                out.write('\n');
+                if (++rows % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+    }
+    
     public VehicleDTO createVehicle(VehicleDTO vehicleDTO) {
         // Validate dealer exists
-        if (!dealerRepository.existsById(vehicleDTO.getDealerId())) {
+        if (!dealerCache.exists(vehicleDTO.getDealerId())) {
             throw new RuntimeException("Dealer with id " + vehicleDTO.getDealerId() + " not found");
         }
         
         Vehicle vehicle = convertToEntity(vehicleDTO);
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
-        return convertToDTO(savedVehicle);
+        vehicleModelIndex.put(savedVehicle.getId(), savedVehicle.getModel());
+        VehicleDTO savedDTO = convertToDTO(savedVehicle);
+        premiumVehicleView.onVehicleSaved(savedDTO);
+        return savedDTO;
+    }
+    
+    /**
+     * Creates many vehicles at once. Rows are validated up front (dealers with a single query
+     * for the whole batch) and the valid ones are inserted through JDBC batching, one transaction
+     * per chunk, so a bad row is reported in its item instead of failing the batch.
+     */
+    public BulkResultDTO bulkCreateVehicles(List<VehicleDTO> vehicleDTOs) {
+        BulkInsert<VehicleDTO> bulk = new BulkInsert<>(vehicleDTOs, "vehicles");
+        Set<Long> existingDealerIds = bulk.existingIds(VehicleDTO::getDealerId, dealerRepository::findExistingIds);
+        List<Integer> validIndexes = bulk.validate(vehicleDTO -> validateForBulk(vehicleDTO, existingDealerIds));
+        
+        List<Vehicle> saved = bulk.insert(validIndexes, transactionTemplate,
+                rows -> vehicleRepository.saveAll(rows.stream().map(this::convertToEntity).collect(Collectors.toList())),
+                Vehicle::getId);
+        for (Vehicle vehicle : saved) {
+            vehicleModelIndex.put(vehicle.getId(), vehicle.getModel());
+            premiumVehicleView.onVehicleSaved(convertToDTO(vehicle));
+        }
+        return bulk.result();
     }
     
     public VehicleDTO updateVehicle(Long id, VehicleDTO vehicleDTO) {
@@ -75,7 +248,7 @@ public class VehicleService {
         
         // Validate dealer exists if dealer is being changed
         if (!existingVehicle.get().getDealerId().equals(vehicleDTO.getDealerId()) &&
-            !dealerRepository.existsById(vehicleDTO.getDealerId())) {
+            !dealerCache.exists(vehicleDTO.getDealerId())) {
             throw new RuntimeException("Dealer with id " + vehicleDTO.getDealerId() + " not found");
         }
         
@@ -86,7 +259,10 @@ public class VehicleService {
         vehicle.setStatus(vehicleDTO.getStatus());
         
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
-        return convertToDTO(savedVehicle);
+        vehicleModelIndex.put(savedVehicle.getId(), savedVehicle.getModel());
+        VehicleDTO savedDTO = convertToDTO(savedVehicle);
+        premiumVehicleView.onVehicleSaved(savedDTO);
+        return savedDTO;
     }
     
     public void deleteVehicle(Long id) {
@@ -94,6 +270,28 @@ public class VehicleService {
             throw new RuntimeException("Vehicle with id " + id + " not found");
         }
         vehicleRepository.deleteById(id);
+        vehicleModelIndex.remove(id);
+        premiumVehicleView.onVehicleDeleted(id);
+    }
+    
+    private String validateForBulk(VehicleDTO vehicleDTO, Set<Long> existingDealerIds) {
+        if (vehicleDTO == null) {
+            return "Vehicle is required";
+        }
+        Set<ConstraintViolation<VehicleDTO>> violations = validator.validate(vehicleDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (vehicleDTO.getModel().length() > MAX_MODEL_LENGTH) {
+            return "Model must be at most " + MAX_MODEL_LENGTH + " characters";
+        }
+        if (!existingDealerIds.contains(vehicleDTO.getDealerId())) {
+            return "Dealer with id " + vehicleDTO.getDealerId() + " not found";
+        }
+        return null;
     }
     
     private VehicleDTO convertToDTO(Vehicle vehicle) {
@@ -106,7 +304,7 @@ public class VehicleService {
         );
         
         // Add dealer information if available
-        dealerRepository.findById(vehicle.getDealerId()).ifPresent(dealer -> {
+        dealerCache.findById(vehicle.getDealerId()).ifPresent(dealer -> {
             dto.setDealerName(dealer.getName());
             dto.setDealerEmail(dealer.getEmail());
         });
@@ -114,6 +312,19 @@ public class VehicleService {
         return dto;
     }
     
+    private VehicleDTO convertToExportDTO(Vehicle vehicle) {
+        Dealer dealer = vehicle.getDealer();
+        return new VehicleDTO(
+            vehicle.getId(),
+            vehicle.getDealerId(),
+            vehicle.getModel(),
+            vehicle.getPrice(),
+            vehicle.getStatus(),
+            dealer != null ? dealer.getName() : null,
+            dealer != null ? dealer.getEmail() : null
+        );
+    }
+    
     private Vehicle convertToEntity(VehicleDTO vehicleDTO) {
         Vehicle vehicle = new Vehicle();
         vehicle.setDealerId(vehicleDTO.getDealerId());
@@ -0,0 +1,65 @@
+package com.dealersautocenter.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With spring.threads.virtual.enabled, requests and scheduled jobs run on virtual threads, and on JDK 21 a
+ * virtual thread that blocks while holding a monitor pins its carrier thread. Application code therefore
+ * guards shared state with java.util.concurrent locks; this fails the build if a synchronized method or
+ * block creeps back in.
+ */
+class VirtualThreadPinningTest {
+    
+    @Test
+    void testApplicationCodeHoldsNoMonitors() throws Exception {
+        Path classes = Path.of(DealerManagementApiApplication.class.getProtectionDomain().getCodeSource()
+                .getLocation().toURI());
+        List<String> monitors = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".class")).toList()) {
+                monitors.addAll(findMonitors(file));
+            }
+        }
+        assertTrue(monitors.isEmpty(), "synchronized code can pin virtual threads, use a ReentrantLock: " + monitors);
+    }
+    
+    private static List<String> findMonitors(Path classFile) throws IOException {
+        List<String> monitors = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(classFile)) {
+            ClassReader reader = new ClassReader(in);
+            String className = reader.getClassName().replace('/', '.');
+            reader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                                 String[] exceptions) {
+                    String method = className + "." + name;
+                    if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                        monitors.add(method);
+                    }
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitInsn(int opcode) {
+                            if (opcode == Opcodes.MONITORENTER) {
+                                monitors.add(method);
+                            }
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        }
+        return monitors;
+    }
+}
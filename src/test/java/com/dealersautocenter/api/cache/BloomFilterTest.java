@@ -0,0 +1,46 @@
+package com.dealersautocenter.api.cache;
+
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    
+    @Test
+    void testNoFalseNegativesAndFalsePositivesNearTarget() throws NoSuchAlgorithmException {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(sha256.digest(("revoked-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(sha256.digest(("revoked-" + i).getBytes(StandardCharsets.UTF_8))));
+        }
+        
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(sha256.digest(ByteBuffer.allocate(4).putInt(i).array()))) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.02, "false-positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+        assertEquals(10_000, filter.insertionCount());
+        // About 9.6 bits per key at 1%
+        assertTrue(filter.bitSize() < 100_000, "bits: " + filter.bitSize());
+    }
+    
+    @Test
+    void testEmptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(100, 0.001);
+        assertFalse(filter.mightContain(new byte[32]));
+        assertEquals(0, filter.expectedFalsePositiveRate());
+        assertThrows(IllegalArgumentException.class, () -> filter.put(new byte[8]));
+    }
+}
@@ -0,0 +1,69 @@
+package com.dealersautocenter.api.cache;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+    
+    @Test
+    void testEvictsTheLeastRecentlyReadEntry() throws InterruptedException {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(8, 0);
+        for (int i = 0; i < 8; i++) {
+            cache.put(i, "value-" + i);
+        }
+        // Reads are recorded to the millisecond
+        Thread.sleep(5);
+        assertEquals("value-0", cache.get(0));
+        
+        cache.put(8, "value-8");
+        
+        assertEquals(8, cache.size());
+        assertEquals("value-0", cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(1, cache.evictionCount());
+    }
+    
+    @Test
+    void testExpiredEntriesAreMissesAndEvictedFirst() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, 0);
+        cache.put("expired", "old", System.currentTimeMillis() - 1);
+        cache.put("live", "new");
+        assertNull(cache.get("expired"));
+        assertEquals("new", cache.putIfAbsent("live", "newer"));
+        
+        cache.put("expired", "old", System.currentTimeMillis() - 1);
+        cache.put("other", "value");
+        assertEquals("new", cache.get("live"));
+        assertEquals("value", cache.get("other"));
+    }
+    
+    @Test
+    void testStaysBoundedUnderConcurrentWriters() throws Exception {
+        BoundedCache<Long, Long> cache = new BoundedCache<>(1_000, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long offset = t * 100_000L;
+            writers.add(pool.submit(() -> {
+                for (long key = offset; key < offset + 20_000; key++) {
+                    cache.put(key, key);
+                    cache.get(key - 1);
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+        
+        assertTrue(cache.size() <= 1_000, "size: " + cache.size());
+        assertEquals(160_000, cache.putCount());
+        assertEquals(160_000 - cache.size(), cache.evictionCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.dealersautocenter.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    
+    private SwitchableDataSource replicaA;
+    private SwitchableDataSource replicaB;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replicaA = new SwitchableDataSource(database("replica-a"));
+        replicaB = new SwitchableDataSource(database("replica-b"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB), 1000, clock::get);
+        
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void testReadOnlyTransactionsRoundRobinAcrossReplicas() {
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(replicaRead());
+        }
+        
+        assertEquals(List.of("replica-a", "replica-b", "replica-a", "replica-b"), served);
+    }
+    
+    @Test
+    void testEverythingElseUsesThePrimary() {
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node(), "no transaction");
+        // Such as the read-only transaction Spring Data opens around an inherited findById
+        assertEquals("primary", readOnly.execute(status -> node()), "read-only but not marked");
+        assertEquals("primary", ReplicaRoutingDataSource.allowingReplicaReads(() -> readWrite.execute(status -> node())),
+                "marked but not read-only");
+    }
+    
+    @Test
+    void testFailsOverWhileReplicasAreDownAndRetriesLater() {
+        replicaA.down = true;
+        assertEquals("replica-b", replicaRead());
+        assertEquals("replica-b", replicaRead());
+        assertEquals(1, routing.availableReplicas());
+        
+        replicaB.down = true;
+        assertEquals("primary", replicaRead());
+        assertEquals(0, routing.availableReplicas());
+        
+        // Skipped until the retry interval has passed, then tried again
+        replicaA.down = false;
+        assertEquals("primary", replicaRead());
+        clock.addAndGet(1000);
+        assertEquals("replica-a", replicaRead());
+    }
+    
+    // A read-only transaction inside a ReplicaRead method
+    private String replicaRead() {
+        return ReplicaRoutingDataSource.allowingReplicaReads(() -> readOnly.execute(status -> node()));
+    }
+    
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+    
+    // A separate in-memory database per target, each knowing its own name
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+    
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        
+        volatile boolean down;
+        
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
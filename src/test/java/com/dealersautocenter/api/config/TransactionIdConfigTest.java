@@ -0,0 +1,21 @@
+package com.dealersautocenter.api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdConfigTest {
+    
+    @Test
+    void testStartupFailsWithoutANodeIdOutsideSingleInstanceProfiles() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("render");
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new TransactionIdConfig().transactionIdGenerator(-1, environment));
+        assertTrue(e.getMessage().contains("PAYMENT_NODE_ID"));
+        assertThrows(IllegalStateException.class,
+                () -> new TransactionIdConfig().transactionIdGenerator(-1, new MockEnvironment()), "no profile");
+    }
+}
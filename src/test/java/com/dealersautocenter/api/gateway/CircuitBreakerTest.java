@@ -0,0 +1,69 @@
+package com.dealersautocenter.api.gateway;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    
+    @Test
+    void testOpensAtFailureRateAndRecoversThroughHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 10, 4, 1000, 2, clock::get);
+        
+        // Below minimumCalls nothing trips
+        fail(breaker, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        
+        clock.addAndGet(1000);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only half-open-calls trial calls are let through");
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    void testFailedTrialCallReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 10, 2, 1000, 3, clock::get);
+        fail(breaker, 2);
+        clock.addAndGet(1000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+    
+    @Test
+    void testOldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, 1000, 1, clock::get);
+        fail(breaker, 1);
+        succeed(breaker, 3);
+        // Failures at 1/4, then the failure slides out as successes come in
+        succeed(breaker, 1);
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    private static void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+    
+    private static void succeed(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.dealersautocenter.api.gateway;
+
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.CircuitBreakerOpenException;
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import com.dealersautocenter.api.exception.PaymentGatewayException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientPaymentGatewayTest {
+    
+    @Test
+    void testBulkheadIsolatesPaymentMethods() {
+        RecordingGateway delegate = new RecordingGateway();
+        ResilientPaymentGateway gateway = gateway(delegate, 60_000, 2, new CircuitBreaker(50, 10, 10, 1000, 1));
+        try {
+            CompletableFuture<PaymentStatus> first = gateway.charge(payment(PaymentMethod.CARD));
+            gateway.charge(payment(PaymentMethod.CARD));
+            
+            assertCause(GatewayBulkheadFullException.class, gateway.charge(payment(PaymentMethod.CARD)));
+            CompletableFuture<PaymentStatus> upi = gateway.charge(payment(PaymentMethod.UPI));
+            assertEquals(3, delegate.calls.size(), "a saturated method must not block the others");
+            
+            delegate.calls.get(0).complete(PaymentStatus.SUCCESS);
+            assertEquals(PaymentStatus.SUCCESS, first.join());
+            assertEquals(1, gateway.availableCalls(PaymentMethod.CARD));
+            assertFalse(upi.isDone());
+        } finally {
+            gateway.close();
+        }
+    }
+    
+    @Test
+    void testCallsThatNeverAnswerTimeOut() {
+        RecordingGateway delegate = new RecordingGateway();
+        ResilientPaymentGateway gateway = gateway(delegate, 50, 2, new CircuitBreaker(50, 10, 10, 1000, 1));
+        try {
+            Throwable error = assertCause(PaymentGatewayException.class, gateway.charge(payment(PaymentMethod.NETBANKING)));
+            assertTrue(error.getMessage().contains("timed out"));
+            assertEquals(2, gateway.availableCalls(PaymentMethod.NETBANKING));
+        } finally {
+            gateway.close();
+        }
+    }
+    
+    @Test
+    void testErrorsOpenTheBreakerButDeclinesDoNot() {
+        RecordingGateway delegate = new RecordingGateway();
+        ResilientPaymentGateway gateway = gateway(delegate, 60_000, 10, new CircuitBreaker(50, 4, 4, 60_000, 1));
+        try {
+            for (int i = 0; i < 4; i++) {
+                CompletableFuture<PaymentStatus> declined = gateway.charge(payment(PaymentMethod.UPI));
+                delegate.calls.get(delegate.calls.size() - 1).complete(PaymentStatus.FAILED);
+                assertEquals(PaymentStatus.FAILED, declined.join());
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, gateway.getCircuitBreakerState());
+            
+            for (int i = 0; i < 4; i++) {
+                CompletableFuture<PaymentStatus> failed = gateway.charge(payment(PaymentMethod.UPI));
+                delegate.calls.get(delegate.calls.size() - 1).completeExceptionally(new PaymentGatewayException("boom"));
+                assertCause(PaymentGatewayException.class, failed);
+            }
+            assertEquals(CircuitBreaker.State.OPEN, gateway.getCircuitBreakerState());
+            
+            int callsBefore = delegate.calls.size();
+            assertCause(CircuitBreakerOpenException.class, gateway.charge(payment(PaymentMethod.CARD)));
+            assertEquals(callsBefore, delegate.calls.size());
+        } finally {
+            gateway.close();
+        }
+    }
+    
+    private static ResilientPaymentGateway gateway(PaymentGateway delegate, long timeoutMillis, int maxConcurrent,
+                                                   CircuitBreaker breaker) {
+        return new ResilientPaymentGateway(delegate, timeoutMillis, maxConcurrent, 0, breaker, 1, new SimpleMeterRegistry());
+    }
+    
+    private static Payment payment(PaymentMethod method) {
+        return new Payment(1L, new BigDecimal("10.00"), method, PaymentStatus.PENDING);
+    }
+    
+    private static Throwable assertCause(Class<? extends Throwable> expected, CompletableFuture<?> future) {
+        CompletionException error = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(expected, error.getCause());
+        return error.getCause();
+    }
+    
+    // Hands out futures the test completes by hand
+    private static class RecordingGateway implements PaymentGateway {
+        
+        private final List<CompletableFuture<PaymentStatus>> calls = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public CompletableFuture<PaymentStatus> charge(Payment payment) {
+            CompletableFuture<PaymentStatus> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+}
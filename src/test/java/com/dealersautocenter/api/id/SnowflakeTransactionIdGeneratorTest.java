@@ -0,0 +1,113 @@
+package com.dealersautocenter.api.id;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+    
+    @Test
+    void testIdsAreUniqueAcrossThreadsAndNodes() throws Exception {
+        int threadsPerNode = 8;
+        int idsPerThread = 50_000;
+        List<SnowflakeTransactionIdGenerator> nodes = List.of(
+                new SnowflakeTransactionIdGenerator(1), new SnowflakeTransactionIdGenerator(2));
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadsPerNode * nodes.size());
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (SnowflakeTransactionIdGenerator node : nodes) {
+                for (int t = 0; t < threadsPerNode; t++) {
+                    Callable<Integer> worker = () -> {
+                        start.await();
+                        int duplicates = 0;
+                        long previous = -1;
+                        for (int i = 0; i < idsPerThread; i++) {
+                            String id = node.nextId();
+                            long value = SnowflakeTransactionIdGenerator.decode(id);
+                            assertTrue(value > previous, "ids must increase within a thread");
+                            previous = value;
+                            if (!seen.add(id)) {
+                                duplicates++;
+                            }
+                        }
+                        return duplicates;
+                    };
+                    results.add(executor.submit(worker));
+                }
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threadsPerNode * nodes.size() * idsPerThread, seen.size());
+    }
+    
+    @Test
+    void testExhaustedSequenceRollsIntoTheNextMillisecond() {
+        long now = SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 1000;
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(7, () -> now);
+        Set<Long> ids = new HashSet<>();
+        long last = -1;
+        for (int i = 0; i < 3 * (SnowflakeTransactionIdGenerator.SEQUENCE_MASK + 1); i++) {
+            last = generator.nextLong();
+            assertTrue(ids.add(last));
+        }
+        assertEquals(1002, timestampOf(last));
+        assertEquals(7, nodeOf(last));
+    }
+    
+    @Test
+    void testClockGoingBackwardsDoesNotRepeatIds() {
+        AtomicLong clock = new AtomicLong(SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 5000);
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(3, clock::get);
+        long before = generator.nextLong();
+        clock.addAndGet(-2000);
+        long after = generator.nextLong();
+        assertTrue(after > before);
+        assertEquals(timestampOf(before), timestampOf(after));
+        
+        clock.addAndGet(3000);
+        assertEquals(6000, timestampOf(generator.nextLong()));
+    }
+    
+    @Test
+    void testEncodingIsFixedLengthAndOrderPreserving() {
+        String small = SnowflakeTransactionIdGenerator.encode(35);
+        String large = SnowflakeTransactionIdGenerator.encode(Long.MAX_VALUE);
+        assertEquals("TXN000000000000z", small);
+        assertEquals(small.length(), large.length());
+        assertTrue(small.compareTo(large) < 0);
+        assertEquals(Long.MAX_VALUE, SnowflakeTransactionIdGenerator.decode(large));
+    }
+    
+    @Test
+    void testRejectsOutOfRangeNodeIds() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeTransactionIdGenerator(SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1));
+    }
+    
+    private static long timestampOf(long id) {
+        return id >>> (SnowflakeTransactionIdGenerator.NODE_BITS + SnowflakeTransactionIdGenerator.SEQUENCE_BITS);
+    }
+    
+    private static long nodeOf(long id) {
+        return (id >>> SnowflakeTransactionIdGenerator.SEQUENCE_BITS) & SnowflakeTransactionIdGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dealersautocenter.api.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    @Test
+    void testBurstThenSustainedRate() {
+        AtomicLong clock = new AtomicLong(SECOND);
+        RateLimiter limiter = new RateLimiter(10, clock::get);
+        RateLimit limit = RateLimit.of(2, 3);
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit));
+        }
+        assertEquals(SECOND / 2, limiter.tryAcquire("client", limit));
+        assertEquals(0, limiter.tryAcquire("other", limit), "buckets are per key");
+        
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.tryAcquire("client", limit));
+        assertTrue(limiter.tryAcquire("client", limit) > 0);
+        
+        // Idle long enough to refill completely, but never beyond the burst
+        clock.addAndGet(10 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit));
+        }
+        assertTrue(limiter.tryAcquire("client", limit) > 0);
+    }
+    
+    @Test
+    void testFootprintIsBoundedByEvictingFullBuckets() {
+        AtomicLong clock = new AtomicLong(SECOND);
+        RateLimiter limiter = new RateLimiter(2, clock::get);
+        RateLimit limit = RateLimit.of(1, 1);
+        
+        assertEquals(0, limiter.tryAcquire("a", limit));
+        assertEquals(0, limiter.tryAcquire("b", limit));
+        // Both buckets are still refilling, so new keys share the overflow bucket
+        assertEquals(0, limiter.tryAcquire("c", limit));
+        assertTrue(limiter.tryAcquire("d", limit) > 0);
+        assertEquals(2, limiter.size());
+        
+        clock.addAndGet(2 * SECOND);
+        assertEquals(0, limiter.tryAcquire("e", limit));
+        assertEquals(1, limiter.size());
+    }
+    
+    @Test
+    void testConcurrentCallersNeverExceedTheBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(10, () -> SECOND);
+        RateLimit limit = RateLimit.of(1, 500);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("hot", limit) == 0) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        
+        assertEquals(500, granted);
+    }
+}
@@ -0,0 +1,47 @@
+package com.dealersautocenter.api.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+    
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    
+    @Test
+    void testVerifiedTokensAreServedFromTheCache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, registry);
+        String token = jwtUtil.generateToken("alice");
+        
+        assertEquals("alice", jwtUtil.verifyToken(token));
+        assertEquals("alice", jwtUtil.verifyToken(token));
+        assertTrue(jwtUtil.validateToken(token, "alice"));
+        assertFalse(jwtUtil.validateToken(token, "bob"));
+        
+        assertEquals(3, registry.get("cache.gets").tags("cache", "jwt.verified", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.puts").tags("cache", "jwt.verified").functionCounter().count());
+    }
+    
+    @Test
+    void testTamperedAndExpiredTokensAreRejectedAndNotCached() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, registry);
+        String token = jwtUtil.generateToken("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.verifyToken(tampered));
+        
+        JwtUtil otherKey = new JwtUtil(SECRET.replace('1', '2'), 60_000, 100, new SimpleMeterRegistry());
+        assertThrows(JwtException.class, () -> otherKey.verifyToken(token));
+        
+        String expired = new JwtUtil(SECRET, -60_000, 100, new SimpleMeterRegistry()).generateToken("alice");
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verifyToken(expired));
+        assertFalse(jwtUtil.validateToken(expired, "alice"));
+        
+        assertEquals(0, registry.get("cache.puts").tags("cache", "jwt.verified").functionCounter().count());
+    }
+}
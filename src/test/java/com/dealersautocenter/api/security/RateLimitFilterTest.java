@@ -0,0 +1,184 @@
+package com.dealersautocenter.api.security;
+
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.service.DealerCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "app.ratelimit.client.requests-per-second=1",
+    "app.ratelimit.client.burst=4",
+    "app.ratelimit.dealer.basic.requests-per-second=1",
+    "app.ratelimit.dealer.basic.burst=2",
+    "app.ratelimit.dealer.premium.requests-per-second=1",
+    "app.ratelimit.dealer.premium.burst=3"
+})
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+    
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private DealerCache dealerCache;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final List<String> forwardedBodies = new ArrayList<>();
+    
+    private final FilterChain chain = (request, response) ->
+            forwardedBodies.add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testDealerLimitFollowsSubscriptionType() throws Exception {
+        Dealer basic = dealerRepository.save(new Dealer("Throttle Motors", "throttle@example.com", SubscriptionType.BASIC));
+        Dealer premium = dealerRepository.save(new Dealer("Express Motors", "express@example.com", SubscriptionType.PREMIUM));
+        
+        assertEquals(200, initiate("renewal-job", basic.getId()).getStatus());
+        assertEquals(200, initiate("other-job", basic.getId()).getStatus());
+        MockHttpServletResponse limited = initiate("third-job", basic.getId());
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader(HttpHeaders.RETRY_AFTER));
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, initiate("premium-job-" + i, premium.getId()).getStatus());
+        }
+        assertEquals(429, initiate("premium-job-3", premium.getId()).getStatus());
+        
+        // The controller still sees the body the filter inspected
+        assertEquals(body(basic.getId()), forwardedBodies.get(0));
+    }
+    
+    @Test
+    void testClientLimitAppliesPerSubject() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(200, get("flooding-client", "/api/payment/" + i).getStatus());
+        }
+        assertEquals(429, get("flooding-client", "/api/payment/5").getStatus());
+        assertEquals(200, get("quiet-client", "/api/payment/5").getStatus());
+        // Outside the payment API nothing is limited
+        assertEquals(200, get("flooding-client", "/api/vehicles/1").getStatus());
+    }
+    
+    @Test
+    void testUnknownDealersDoNotCrowdOutRealOnes() throws Exception {
+        Dealer dealer = dealerRepository.save(new Dealer("Crowded Motors", "crowded@example.com", SubscriptionType.BASIC));
+        // Few buckets and a client limit loose enough for one client to send many made-up dealer ids
+        RateLimitFilter filter = new RateLimitFilter(true, 8, 1_000_000, 1_000_000, 1, 2, 1, 3,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "dealerCache", dealerCache);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 1000; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payment/dealer/" + (-1 - i % 10));
+            assertEquals(200, filter(filter, "id-guesser", request).getStatus());
+        }
+        // Each unknown id is looked up once, then answered from the dealer cache
+        assertTrue(statistics.getPrepareStatementCount() <= 10, "statements: " + statistics.getPrepareStatementCount());
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payment/dealer/" + dealer.getId());
+        assertEquals(200, filter(filter, "dealer-portal", request).getStatus());
+    }
+    
+    @Test
+    void testBufferedBodyCanBeReadNonBlocking() throws Exception {
+        Dealer dealer = dealerRepository.save(new Dealer("Async Motors", "async@example.com", SubscriptionType.PREMIUM));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/payment/initiate");
+        request.setContentType("application/json");
+        request.setContent(body(dealer.getId()).getBytes(StandardCharsets.UTF_8));
+        List<String> events = new ArrayList<>();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("async-client", null, List.of()));
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), (forwarded, response) -> {
+            ServletInputStream in = forwarded.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    while (in.isReady() && !in.isFinished()) {
+                        received.write(in.read());
+                    }
+                }
+                
+                @Override
+                public void onAllDataRead() {
+                    events.add("done");
+                }
+                
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+        });
+        
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(body(dealer.getId()), received.toString(StandardCharsets.UTF_8));
+    }
+    
+    private MockHttpServletResponse initiate(String subject, Long dealerId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/payment/initiate");
+        request.setContentType("application/json");
+        request.setContent(body(dealerId).getBytes(StandardCharsets.UTF_8));
+        return filter(subject, request);
+    }
+    
+    private MockHttpServletResponse get(String subject, String uri) throws Exception {
+        return filter(subject, new MockHttpServletRequest("GET", uri));
+    }
+    
+    private MockHttpServletResponse filter(String subject, MockHttpServletRequest request) throws Exception {
+        return filter(rateLimitFilter, subject, request);
+    }
+    
+    private MockHttpServletResponse filter(RateLimitFilter filter, String subject, MockHttpServletRequest request)
+            throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(subject, null, List.of()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+    
+    private static String body(Long dealerId) {
+        return "{\"amount\":99.00,\"method\":\"CARD\",\"dealerId\":" + dealerId + "}";
+    }
+}
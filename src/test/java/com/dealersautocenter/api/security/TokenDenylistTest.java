@@ -0,0 +1,86 @@
+package com.dealersautocenter.api.security;
+
+import com.dealersautocenter.api.entity.RevokedToken;
+import com.dealersautocenter.api.repository.RevokedTokenRepository;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenDenylistTest {
+    
+    @Autowired
+    private TokenDenylist tokenDenylist;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private JwtRequestFilter jwtRequestFilter;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void testRevokedTokenNoLongerAuthenticates() throws Exception {
+        String token = jwtUtil.generateToken("leaving-user");
+        String otherToken = jwtUtil.generateToken("staying-user");
+        assertEquals("leaving-user", authenticate(token));
+        
+        tokenDenylist.revoke(token);
+        
+        assertTrue(tokenDenylist.isRevoked(token));
+        assertFalse(tokenDenylist.isRevoked(otherToken));
+        assertNull(authenticate(token));
+        assertEquals("staying-user", authenticate(otherToken));
+        assertTrue(meterRegistry.get("jwt.denylist.checks").tag("result", "revoked").counter().count() >= 1);
+        
+        // Survives a rebuild from the table
+        assertTrue(tokenDenylist.rebuild() >= 1);
+        assertTrue(tokenDenylist.isRevoked(token));
+    }
+    
+    @Test
+    void testRebuildPrunesExpiredRevocations() {
+        revokedTokenRepository.save(new RevokedToken("ab".repeat(32), LocalDateTime.now().minusMinutes(1)));
+        
+        tokenDenylist.rebuild();
+        
+        assertFalse(revokedTokenRepository.existsById("ab".repeat(32)));
+        assertTrue(meterRegistry.get("jwt.denylist.bloom.memory").gauge().value() > 0);
+    }
+    
+    @Test
+    void testOnlyValidTokensCanBeRevoked() {
+        assertThrows(JwtException.class, () -> tokenDenylist.revoke("not-a-token"));
+    }
+    
+    private String authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payment/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        FilterChain chain = (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return authentication.get() == null ? null : authentication.get().getName();
+    }
+}
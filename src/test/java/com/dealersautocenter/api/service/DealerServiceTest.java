@@ -0,0 +1,96 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.repository.DealerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DealerServiceTest {
+    
+    @Autowired
+    private DealerService dealerService;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void testCachedDealerReadsSkipTheDatabase() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Cached Motors", "cached@example.com", SubscriptionType.BASIC));
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertTrue(dealerService.getDealerById(dealer.getId()).isPresent());
+        assertTrue(dealerService.getDealerByEmail("cached@example.com").isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testUpdateInvalidatesCachedDealer() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Renamed Motors", "renamed@example.com", SubscriptionType.BASIC));
+        dealerService.getDealerById(dealer.getId());
+        
+        dealerService.updateDealer(dealer.getId(),
+            new DealerDTO(null, "Renamed Motors", "renamed-new@example.com", SubscriptionType.PREMIUM));
+        
+        DealerDTO cached = dealerService.getDealerById(dealer.getId()).orElseThrow();
+        assertEquals(SubscriptionType.PREMIUM, cached.getSubscriptionType());
+        assertTrue(dealerService.getDealerByEmail("renamed@example.com").isEmpty());
+        assertEquals(dealer.getId(), dealerService.getDealerByEmail("renamed-new@example.com").orElseThrow().getId());
+        
+        dealerService.deleteDealer(dealer.getId());
+        assertTrue(dealerService.getDealerById(dealer.getId()).isEmpty());
+    }
+    
+    @Test
+    void testDealerETagChangesOnlyWhenDealerChanges() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Versioned Motors", "versioned@example.com", SubscriptionType.BASIC));
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String eTag = dealerService.getDealerETag(dealer.getId()).orElseThrow();
+        assertEquals(eTag, dealerService.getDealerETag(dealer.getId()).orElseThrow());
+        // One primary read each, never the cache
+        assertEquals(2, statistics.getPrepareStatementCount());
+        
+        dealerService.updateDealer(dealer.getId(),
+            new DealerDTO(null, "Versioned Motors", "versioned@example.com", SubscriptionType.PREMIUM));
+        assertNotEquals(eTag, dealerService.getDealerETag(dealer.getId()).orElseThrow());
+        
+        dealerService.deleteDealer(dealer.getId());
+        assertTrue(dealerService.getDealerETag(dealer.getId()).isEmpty());
+    }
+    
+    @Test
+    void testDealerETagSeesWritesThatBypassedTheCache() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Elsewhere Renamed Motors", "elsewhere-renamed@example.com", SubscriptionType.BASIC));
+        String eTag = dealerService.getDealerETag(dealer.getId()).orElseThrow();
+        assertEquals("Elsewhere Renamed Motors", dealerService.getDealerById(dealer.getId(), eTag).orElseThrow().getName());
+        
+        // Written past this instance's cache, as another instance would
+        Dealer stored = dealerRepository.findById(dealer.getId()).orElseThrow();
+        stored.setName("Renamed Elsewhere Motors");
+        dealerRepository.save(stored);
+        
+        String newETag = dealerService.getDealerETag(dealer.getId()).orElseThrow();
+        assertNotEquals(eTag, newETag);
+        assertEquals("Renamed Elsewhere Motors", dealerService.getDealerById(dealer.getId(), newETag).orElseThrow().getName());
+    }
+}
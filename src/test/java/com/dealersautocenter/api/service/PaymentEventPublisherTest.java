@@ -0,0 +1,190 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.PaymentStatusEventDTO;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.exception.EventStreamCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentEventPublisherTest {
+    
+    @Test
+    void testEventsAreFilteredByDealer() throws InterruptedException {
+        PaymentEventPublisher publisher = new PaymentEventPublisher(16, 1, 60_000, 60_000, 100, 10, new SimpleMeterRegistry());
+        try {
+            RecordingEmitter all = new RecordingEmitter(3, null);
+            RecordingEmitter dealerTwo = new RecordingEmitter(1, null);
+            publisher.subscribe(null, all);
+            publisher.subscribe(2L, dealerTwo);
+            
+            publisher.publish(event(1L, 1L));
+            publisher.publish(event(2L, 2L));
+            publisher.publish(event(3L, 1L));
+            
+            assertTrue(all.received.await(5, TimeUnit.SECONDS));
+            assertTrue(dealerTwo.received.await(5, TimeUnit.SECONDS));
+            assertEquals(3, all.sent.size());
+            assertEquals(1, dealerTwo.sent.size());
+        } finally {
+            publisher.shutdown();
+        }
+    }
+    
+    @Test
+    void testSlowSubscriberIsDisconnectedWithoutSlowingPublishers() throws InterruptedException {
+        int bufferSize = 8;
+        int events = 10_000;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PaymentEventPublisher publisher = new PaymentEventPublisher(bufferSize, 2, 60_000, 60_000, 100, 10, registry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            RecordingEmitter slow = new RecordingEmitter(1, unblock);
+            RecordingEmitter fast = new RecordingEmitter(events, null);
+            publisher.subscribe(null, slow);
+            publisher.subscribe(null, fast);
+            
+            long started = System.nanoTime();
+            for (long id = 1; id <= events; id++) {
+                publisher.publish(event(id, 1L));
+                // Let the fast subscriber keep up so only the stalled one overflows
+                if (id % (bufferSize / 2) == 0) {
+                    awaitSent(fast, id);
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            
+            assertTrue(fast.received.await(10, TimeUnit.SECONDS));
+            assertEquals(events, fast.sent.size());
+            assertEquals(1, publisher.subscriberCount());
+            assertEquals(1, registry.get("payments.events.overflowed").counter().count());
+            assertTrue(elapsedMillis < 5000, "publishing took " + elapsedMillis + " ms");
+            
+            unblock.countDown();
+            assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            unblock.countDown();
+            publisher.shutdown();
+        }
+    }
+    
+    @Test
+    void testStalledClientsDoNotHoldUpOtherSubscribers() throws InterruptedException {
+        int events = 20;
+        // As many stalled clients as core sender threads, with buffers large enough that neither overflows
+        PaymentEventPublisher publisher = new PaymentEventPublisher(64, 2, 60_000, 60_000, 100, 10,
+                new SimpleMeterRegistry());
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            publisher.subscribe(null, new RecordingEmitter(1, unblock));
+            publisher.subscribe(null, new RecordingEmitter(1, unblock));
+            RecordingEmitter healthy = new RecordingEmitter(events, null);
+            publisher.subscribe(null, healthy);
+            
+            for (long id = 1; id <= events; id++) {
+                publisher.publish(event(id, 1L));
+            }
+            
+            assertTrue(healthy.received.await(5, TimeUnit.SECONDS));
+            assertEquals(events, healthy.sent.size());
+        } finally {
+            unblock.countDown();
+            publisher.shutdown();
+        }
+    }
+    
+    @Test
+    void testSubscriberWithAStuckSendIsDisconnected() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PaymentEventPublisher publisher = new PaymentEventPublisher(64, 1, 60_000, 50, 100, 10, registry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        try {
+            RecordingEmitter stuck = new RecordingEmitter(1, unblock);
+            publisher.subscribe(null, stuck);
+            
+            publisher.publish(event(1L, 1L));
+            Thread.sleep(200);
+            // Buffer space is left, but the first send has been stuck past the send timeout
+            publisher.publish(event(2L, 1L));
+            
+            assertEquals(0, publisher.subscriberCount());
+            assertEquals(1, registry.get("payments.events.stalled").counter().count());
+            unblock.countDown();
+            assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            unblock.countDown();
+            publisher.shutdown();
+        }
+    }
+    
+    @Test
+    void testSubscriptionsAreCappedOverallAndPerDealer() {
+        PaymentEventPublisher publisher = new PaymentEventPublisher(16, 1, 60_000, 60_000, 3, 2,
+                new SimpleMeterRegistry());
+        try {
+            publisher.subscribe(1L, new RecordingEmitter(1, null));
+            publisher.subscribe(1L, new RecordingEmitter(1, null));
+            assertThrows(EventStreamCapacityExceededException.class,
+                    () -> publisher.subscribe(1L, new RecordingEmitter(1, null)));
+            
+            publisher.subscribe(2L, new RecordingEmitter(1, null));
+            assertThrows(EventStreamCapacityExceededException.class,
+                    () -> publisher.subscribe(null, new RecordingEmitter(1, null)));
+            assertEquals(3, publisher.subscriberCount());
+        } finally {
+            publisher.shutdown();
+        }
+    }
+    
+    private static void awaitSent(RecordingEmitter emitter, long count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.sent.size() < count && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+    }
+    
+    private static PaymentStatusEventDTO event(Long paymentId, Long dealerId) {
+        return new PaymentStatusEventDTO(paymentId, dealerId, "TXN" + paymentId, PaymentStatus.PENDING,
+                PaymentStatus.SUCCESS, LocalDateTime.now());
+    }
+    
+    // Records sends instead of writing to a response; optionally stalls on the first send like a stuck client
+    private static class RecordingEmitter extends SseEmitter {
+        
+        private final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch stall;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        
+        RecordingEmitter(int expected, CountDownLatch stall) {
+            this.received = new CountDownLatch(expected);
+            this.stall = stall;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+            received.countDown();
+        }
+        
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.PaymentRequestDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.exception.IdempotencyKeyConflictException;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.PaymentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentIdempotencyGuardTest {
+    
+    @Autowired
+    private PaymentIdempotencyGuard paymentIdempotencyGuard;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void testParallelReplaysCreateExactlyOnePayment() throws Exception {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Retry Motors", "retry@example.com", SubscriptionType.BASIC));
+        PaymentRequestDTO request = new PaymentRequestDTO(dealer.getId(), new BigDecimal("499.00"), PaymentMethod.UPI);
+        String key = UUID.randomUUID().toString();
+        
+        int replays = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(replays);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponseDTO>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < replays; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return paymentIdempotencyGuard.initiate("billing-job", key, request);
+                }));
+            }
+            start.countDown();
+            Set<Long> ids = responses.stream()
+                    .map(this::await)
+                    .map(PaymentResponseDTO::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(1, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(1, paymentRepository.findAll().stream()
+                .filter(payment -> ("billing-job:" + key).equals(payment.getIdempotencyKey()))
+                .count());
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        paymentIdempotencyGuard.initiate("billing-job", key, request);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Reuse Motors", "reuse@example.com", SubscriptionType.BASIC));
+        String key = UUID.randomUUID().toString();
+        paymentIdempotencyGuard.initiate("billing-job", key,
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("10.00"), PaymentMethod.CARD));
+        
+        assertThrows(IdempotencyKeyConflictException.class, () -> paymentIdempotencyGuard.initiate(
+            "billing-job", key, new PaymentRequestDTO(dealer.getId(), new BigDecimal("20.00"), PaymentMethod.CARD)));
+    }
+    
+    @Test
+    void testSameKeyFromDifferentSubjectsCreatesSeparatePayments() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Shared Key Motors", "shared-key@example.com", SubscriptionType.BASIC));
+        String key = UUID.randomUUID().toString();
+        
+        PaymentResponseDTO first = paymentIdempotencyGuard.initiate("renewal-job", key,
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("10.00"), PaymentMethod.CARD));
+        PaymentResponseDTO second = paymentIdempotencyGuard.initiate("storefront", key,
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("20.00"), PaymentMethod.UPI));
+        
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(first.getId(), paymentIdempotencyGuard.initiate("renewal-job", key,
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("10.00"), PaymentMethod.CARD)).getId());
+        assertEquals(second.getId(), paymentIdempotencyGuard.initiate("storefront", key,
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("20.00"), PaymentMethod.UPI)).getId());
+    }
+    
+    private PaymentResponseDTO await(Future<PaymentResponseDTO> response) {
+        try {
+            return response.get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
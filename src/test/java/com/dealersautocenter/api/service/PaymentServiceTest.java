@@ -0,0 +1,462 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.CursorPageDTO;
+import com.dealersautocenter.api.dto.PaymentRequestDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.PaymentStatusEventDTO;
+import com.dealersautocenter.api.dto.PaymentSummaryDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import com.dealersautocenter.api.exception.PaymentStatusConflictException;
+import com.dealersautocenter.api.gateway.PaymentGateway;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.PaymentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceTest {
+    
+    // Gateway charges per payment id, across the settlement scheduler and the sweep
+    private static final Map<Long, Integer> CHARGES = new ConcurrentHashMap<>();
+    
+    // Payments the gateway turns away as if their method's bulkhead were full
+    private static final Set<Long> BULKHEAD_FULL = ConcurrentHashMap.newKeySet();
+    
+    @TestConfiguration
+    static class ChargeCountingConfig {
+        
+        @Bean
+        @Primary
+        PaymentGateway chargeCountingGateway(@Qualifier("paymentGateway") PaymentGateway paymentGateway) {
+            return payment -> {
+                if (BULKHEAD_FULL.contains(payment.getId())) {
+                    return CompletableFuture.failedFuture(new GatewayBulkheadFullException("bulkhead full"));
+                }
+                CHARGES.merge(payment.getId(), 1, Integer::sum);
+                return paymentGateway.charge(payment);
+            };
+        }
+    }
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PaymentEventPublisher paymentEventPublisher;
+    
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+    
+    @Test
+    void testPaymentPagesCoverEveryRowOnce() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Keyset Motors", "keyset@example.com", SubscriptionType.BASIC));
+        
+        // Rows sharing a createdAt must still be split across pages by id
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 7; i++) {
+            Payment payment = new Payment(dealer.getId(), new BigDecimal("10.00"), PaymentMethod.CARD, PaymentStatus.SUCCESS);
+            payment.setCreatedAt(createdAt);
+            paymentRepository.save(payment);
+        }
+        
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<PaymentResponseDTO> page = paymentService.getAllPayments(3, cursor);
+            assertTrue(page.getItems().size() <= 3);
+            for (PaymentResponseDTO payment : page.getItems()) {
+                assertTrue(seen.add(payment.getId()), "payment returned twice: " + payment.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertEquals(paymentRepository.count(), seen.size());
+    }
+    
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.getAllPayments(10, "not-a-cursor"));
+    }
+    
+    @Test
+    void testInitiateReturnsWithoutWaitingForSettlement() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Instant Motors", "instant@example.com", SubscriptionType.BASIC));
+        PaymentRequestDTO request = new PaymentRequestDTO(dealer.getId(), new BigDecimal("250.00"), PaymentMethod.UPI);
+        
+        long started = System.nanoTime();
+        PaymentResponseDTO payment = paymentService.initiatePayment(request);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        
+        assertEquals(PaymentStatus.PENDING, payment.getStatus());
+        assertTrue(elapsedMillis < 1000, "initiate took " + elapsedMillis + " ms");
+    }
+    
+    @Test
+    void testSweepSettlesStalePendingPaymentsWithBatchedUpdates() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Sweep Motors", "sweep@example.com", SubscriptionType.BASIC));
+        List<Long> staleIds = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Payment payment = new Payment(dealer.getId(), new BigDecimal("75.00"), PaymentMethod.NETBANKING, PaymentStatus.PENDING);
+            payment.setCreatedAt(LocalDateTime.now().minusHours(1));
+            staleIds.add(paymentRepository.save(payment).getId());
+        }
+        
+        // Other tests may have left stale pending payments of their own dealers behind
+        long dealers = paymentRepository.findByStatus(PaymentStatus.PENDING).stream()
+                .map(Payment::getDealerId)
+                .distinct()
+                .count();
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        paymentService.processPendingPayments();
+        
+        // One claiming SELECT and lease UPDATE, one locking SELECT, at most one UPDATE per outcome and one
+        // summary UPDATE per dealer, not one statement per payment
+        assertTrue(statistics.getPrepareStatementCount() <= 5 + dealers,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertTrue(paymentRepository.findAllById(staleIds).stream()
+                .noneMatch(payment -> payment.getStatus() == PaymentStatus.PENDING));
+    }
+    
+    @Test
+    void testSweepSkipsPaymentsLeasedByAnotherSweep() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Leased Motors", "leased@example.com", SubscriptionType.BASIC));
+        Payment leased = new Payment(dealer.getId(), new BigDecimal("75.00"), PaymentMethod.CARD, PaymentStatus.PENDING);
+        leased.setCreatedAt(LocalDateTime.now().minusHours(1));
+        leased.setSweepLeaseUntil(LocalDateTime.now().plusMinutes(5));
+        Payment expired = new Payment(dealer.getId(), new BigDecimal("75.00"), PaymentMethod.CARD, PaymentStatus.PENDING);
+        expired.setCreatedAt(LocalDateTime.now().minusHours(1));
+        expired.setSweepLeaseUntil(LocalDateTime.now().minusMinutes(5));
+        Long leasedId = paymentRepository.save(leased).getId();
+        Long expiredId = paymentRepository.save(expired).getId();
+        
+        paymentService.processPendingPayments();
+        
+        assertEquals(PaymentStatus.PENDING, paymentRepository.findById(leasedId).orElseThrow().getStatus());
+        Payment swept = paymentRepository.findById(expiredId).orElseThrow();
+        assertNotEquals(PaymentStatus.PENDING, swept.getStatus());
+        assertNull(swept.getSweepLeaseUntil());
+    }
+    
+    @Test
+    void testSweepReleasesPaymentsTheGatewayTurnedAway() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Bulkhead Motors", "bulkhead@example.com", SubscriptionType.BASIC));
+        Payment payment = new Payment(dealer.getId(), new BigDecimal("75.00"), PaymentMethod.UPI, PaymentStatus.PENDING);
+        payment.setCreatedAt(LocalDateTime.now().minusHours(1));
+        Long id = paymentRepository.save(payment).getId();
+        
+        BULKHEAD_FULL.add(id);
+        try {
+            paymentService.processPendingPayments();
+        } finally {
+            BULKHEAD_FULL.remove(id);
+        }
+        
+        // Never charged, so the next pass claims it without waiting out the lease
+        Payment rejected = paymentRepository.findById(id).orElseThrow();
+        assertEquals(PaymentStatus.PENDING, rejected.getStatus());
+        assertNull(rejected.getSweepLeaseUntil());
+        paymentService.processPendingPayments();
+        assertEquals(1, CHARGES.get(id));
+        assertNotEquals(PaymentStatus.PENDING, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+    
+    @Test
+    void testRetriedPaymentIsChargedOnceBySchedulerAndSweep() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Retry Race Motors", "retry-race@example.com", SubscriptionType.BASIC));
+        Payment failed = new Payment(dealer.getId(), new BigDecimal("60.00"), PaymentMethod.CARD, PaymentStatus.FAILED);
+        failed.setCreatedAt(LocalDateTime.now().minusHours(1));
+        Long id = paymentRepository.save(failed).getId();
+        
+        // The retry is fresh for the sweep however old the payment is, so only the scheduler path charges it
+        paymentService.updatePaymentStatus(id, PaymentStatus.PENDING);
+        paymentService.processPendingPayments();
+        assertNull(CHARGES.get(id));
+        paymentService.settlePayment(id).join();
+        paymentService.processPendingPayments();
+        paymentService.settlePayment(id).join();
+        
+        assertEquals(1, CHARGES.get(id));
+        assertNotEquals(PaymentStatus.PENDING, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+    
+    @Test
+    void testSettlementSkipsPaymentsLeasedBySweep() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Sweep Lease Motors", "sweep-lease@example.com", SubscriptionType.BASIC));
+        Payment failed = new Payment(dealer.getId(), new BigDecimal("60.00"), PaymentMethod.CARD, PaymentStatus.FAILED);
+        Long id = paymentRepository.save(failed).getId();
+        paymentService.updatePaymentStatus(id, PaymentStatus.PENDING);
+        
+        // As if a sweep had claimed the retried payment and were waiting on the gateway
+        paymentRepository.leaseForSweep(List.of(id), LocalDateTime.now().plusMinutes(5));
+        paymentService.settlePayment(id).join();
+        
+        assertNull(CHARGES.get(id));
+        assertEquals(PaymentStatus.PENDING, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+    
+    @Test
+    void testBulkInitiateReportsBadRowsAndBatchesTheRest() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Renewal Motors", "renewal@example.com", SubscriptionType.PREMIUM));
+        List<PaymentRequestDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new PaymentRequestDTO(dealer.getId(), new BigDecimal("99.00"), PaymentMethod.CARD));
+        }
+        rows.set(3, new PaymentRequestDTO(-1L, new BigDecimal("99.00"), PaymentMethod.CARD));
+        rows.set(7, new PaymentRequestDTO(dealer.getId(), BigDecimal.ZERO, null));
+        rows.set(9, null);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkResultDTO result = paymentService.bulkInitiatePayments(rows);
+        
+        assertEquals(117, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals("Dealer with id -1 not found", result.getItems().get(3).getError());
+        assertEquals("Amount must be greater than 0; Payment method is required", result.getItems().get(7).getError());
+        assertEquals("Payment is required", result.getItems().get(9).getError());
+        assertNotNull(result.getItems().get(119).getId());
+        // The payments plus the new dealer's summary row
+        assertEquals(118, statistics.getEntityInsertCount());
+        // One dealer lookup, a few sequence calls, insert batches and one summary update, not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 20, "statements: " + statistics.getPrepareStatementCount());
+        
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(117, summary.getTotalCount());
+        assertEquals(0, new BigDecimal("11583.00").compareTo(summary.getTotalAmount()));
+        assertEquals(117, paymentRepository.findByDealerId(dealer.getId()).size());
+    }
+    
+    @Test
+    void testBulkInitiateRetriesAFailedChunkRowByRow() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Retry Renewals", "retry-renewals@example.com", SubscriptionType.PREMIUM));
+        List<PaymentRequestDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new PaymentRequestDTO(dealer.getId(), new BigDecimal("50.00"), PaymentMethod.CARD));
+        }
+        // Passes validation but overflows the amount column, failing the chunk's insert
+        rows.set(6, new PaymentRequestDTO(dealer.getId(), new BigDecimal("1e20"), PaymentMethod.CARD));
+        
+        BulkResultDTO result = paymentService.bulkInitiatePayments(rows);
+        
+        assertEquals(9, result.getCreated());
+        assertEquals("Could not be saved", result.getItems().get(6).getError());
+        // The failed chunk's summary update was rolled back with it
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(9, summary.getTotalCount());
+        assertEquals(0, new BigDecimal("450.00").compareTo(summary.getTotalAmount()));
+    }
+    
+    @Test
+    void testStatusChangesArePublishedToDealerStream() throws InterruptedException {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Stream Motors", "stream@example.com", SubscriptionType.BASIC));
+        Payment payment = paymentRepository.save(
+            new Payment(dealer.getId(), new BigDecimal("90.00"), PaymentMethod.CARD, PaymentStatus.PENDING));
+        
+        BlockingQueue<PaymentStatusEventDTO> received = new LinkedBlockingQueue<>();
+        SseEmitter emitter = paymentEventPublisher.subscribe(dealer.getId(), new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                builder.build().stream()
+                        .filter(part -> part.getData() instanceof PaymentStatusEventDTO)
+                        .forEach(part -> received.add((PaymentStatusEventDTO) part.getData()));
+            }
+        });
+        try {
+            paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.FAILED);
+            
+            PaymentStatusEventDTO event = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(payment.getId(), event.getPaymentId());
+            assertEquals(PaymentStatus.PENDING, event.getPreviousStatus());
+            assertEquals(PaymentStatus.FAILED, event.getStatus());
+        } finally {
+            emitter.complete();
+        }
+    }
+    
+    @Test
+    void testAwaitCompletesWhenPaymentSettles() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Await Motors", "await@example.com", SubscriptionType.BASIC));
+        Payment payment = paymentRepository.save(
+            new Payment(dealer.getId(), new BigDecimal("120.00"), PaymentMethod.UPI, PaymentStatus.PENDING));
+        
+        DeferredResult<ResponseEntity<PaymentResponseDTO>> result = paymentService.awaitPayment(payment.getId(), 30);
+        assertFalse(result.hasResult());
+        
+        paymentService.settlePayment(payment.getId()).join();
+        
+        assertTrue(result.hasResult());
+        @SuppressWarnings("unchecked")
+        ResponseEntity<PaymentResponseDTO> response = (ResponseEntity<PaymentResponseDTO>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(PaymentStatus.PENDING, response.getBody().getStatus());
+    }
+    
+    @Test
+    void testAwaitAnswersImmediatelyForSettledOrMissingPayments() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Settled Motors", "settled@example.com", SubscriptionType.BASIC));
+        Payment payment = paymentRepository.save(
+            new Payment(dealer.getId(), new BigDecimal("60.00"), PaymentMethod.CARD, PaymentStatus.SUCCESS));
+        
+        DeferredResult<ResponseEntity<PaymentResponseDTO>> settled = paymentService.awaitPayment(payment.getId(), 30);
+        assertTrue(settled.hasResult());
+        assertEquals(HttpStatus.OK, ((ResponseEntity<?>) settled.getResult()).getStatusCode());
+        
+        DeferredResult<ResponseEntity<PaymentResponseDTO>> missing = paymentService.awaitPayment(Long.MAX_VALUE, 30);
+        assertEquals(HttpStatus.NOT_FOUND, ((ResponseEntity<?>) missing.getResult()).getStatusCode());
+    }
+    
+    @Test
+    void testConcurrentStatusChangesApplyExactlyOnce() throws InterruptedException {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Race Motors", "race@example.com", SubscriptionType.BASIC));
+        PaymentResponseDTO payment = paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("80.00"), PaymentMethod.CARD));
+        
+        int writers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentStatus>> attempts = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            PaymentStatus target = i % 2 == 0 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return paymentService.updatePaymentStatus(payment.getId(), target).getStatus();
+            }));
+        }
+        start.countDown();
+        
+        List<PaymentStatus> applied = new ArrayList<>();
+        int conflicts = 0;
+        for (Future<PaymentStatus> attempt : attempts) {
+            try {
+                applied.add(attempt.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(PaymentStatusConflictException.class, e.getCause());
+                conflicts++;
+            } catch (TimeoutException e) {
+                fail("status update did not finish");
+            }
+        }
+        pool.shutdown();
+        
+        // Writers asking for the status that already won are answered without a write
+        Payment stored = paymentRepository.findById(payment.getId()).orElseThrow();
+        assertEquals(writers, applied.size() + conflicts);
+        assertTrue(applied.stream().allMatch(status -> status == stored.getStatus()));
+        assertEquals(1L, stored.getVersion());
+        
+        // The settlement that is still scheduled finds the payment settled and leaves it alone
+        paymentService.settlePayment(payment.getId()).join();
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(0, summary.getPendingCount());
+        assertEquals(1, summary.getSuccessCount() + summary.getFailedCount());
+    }
+    
+    @Test
+    void testStatusChangeBasedOnAStaleReadIsRejectedAfterARoundTrip() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Round Trip Motors", "round-trip@example.com", SubscriptionType.BASIC));
+        Long id = paymentRepository.save(
+            new Payment(dealer.getId(), new BigDecimal("70.00"), PaymentMethod.CARD, PaymentStatus.FAILED)).getId();
+        
+        // An override reads the failed payment, then a retry fails again before the override writes
+        Payment read = paymentRepository.findById(id).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, paymentRepository.transition(id, PaymentStatus.FAILED, read.getVersion(), PaymentStatus.PENDING, now));
+        assertEquals(1, paymentRepository.settlePending(List.of(id), PaymentStatus.FAILED, now));
+        
+        // Same status as read, but not the same version
+        assertEquals(0, paymentRepository.transition(id, PaymentStatus.FAILED, read.getVersion(), PaymentStatus.PENDING, now));
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(PaymentStatus.FAILED, stored.getStatus());
+        assertEquals(read.getVersion() + 2, stored.getVersion());
+    }
+    
+    @Test
+    void testStatusTransitionsFollowTheTable() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Second Chance Motors", "second-chance@example.com", SubscriptionType.BASIC));
+        PaymentResponseDTO payment = paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("45.00"), PaymentMethod.UPI));
+        
+        assertEquals(PaymentStatus.FAILED, paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.FAILED).getStatus());
+        assertThrows(PaymentStatusConflictException.class,
+                () -> paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.SUCCESS));
+        
+        // A failed payment may be retried, and a successful one is final
+        assertEquals(PaymentStatus.PENDING, paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.PENDING).getStatus());
+        assertEquals(PaymentStatus.SUCCESS, paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.SUCCESS).getStatus());
+        assertThrows(PaymentStatusConflictException.class,
+                () -> paymentService.updatePaymentStatus(payment.getId(), PaymentStatus.PENDING));
+        assertEquals(3L, paymentRepository.findById(payment.getId()).orElseThrow().getVersion());
+        
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(0, summary.getPendingCount());
+        assertEquals(1, summary.getSuccessCount());
+        assertEquals(0, summary.getFailedCount());
+    }
+}
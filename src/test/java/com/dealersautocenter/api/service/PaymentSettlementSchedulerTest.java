@@ -0,0 +1,119 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.exception.GatewayBulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentSettlementSchedulerTest {
+    
+    @Test
+    void testThousandsOfSettlementsUseAFixedNumberOfThreads() throws InterruptedException {
+        int payments = 5000;
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        Set<String> settlingThreads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(payments);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PaymentSettlementScheduler scheduler = new PaymentSettlementScheduler(paymentId -> {
+            settled.add(paymentId);
+            settlingThreads.add(Thread.currentThread().getName());
+            done.countDown();
+            return CompletableFuture.completedFuture(null);
+        }, 200, 2, 16, payments, registry);
+        
+        try {
+            for (long id = 1; id <= payments; id++) {
+                assertTrue(scheduler.tryReserve());
+                scheduler.schedule(id);
+            }
+            assertEquals(payments, scheduler.inFlight());
+            
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            // The latch trips inside the settler, just before the worker records the outcome
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (scheduler.inFlight() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(payments, settled.size());
+            assertTrue(settlingThreads.size() <= 2, "settled on " + settlingThreads);
+            assertEquals(payments, registry.get("payments.settlement.completed").counter().count());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+    
+    @Test
+    void testAdmissionStopsAtMaxInFlight() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PaymentSettlementScheduler scheduler = new PaymentSettlementScheduler(
+                paymentId -> CompletableFuture.completedFuture(null), 60_000, 1, 1, 2, registry);
+        try {
+            assertTrue(scheduler.tryReserve());
+            assertTrue(scheduler.tryReserve());
+            assertFalse(scheduler.tryReserve());
+            assertEquals(1, registry.get("payments.settlement.rejected").counter().count());
+            
+            scheduler.release();
+            assertTrue(scheduler.tryReserve());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+    
+    @Test
+    void testBatchReservationIsGrantedUpToCapacityAndScheduledTogether() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(3);
+        PaymentSettlementScheduler scheduler = new PaymentSettlementScheduler(paymentId -> {
+            settled.add(paymentId);
+            done.countDown();
+            return CompletableFuture.completedFuture(null);
+        }, 10, 1, 4, 4, registry);
+        try {
+            assertTrue(scheduler.tryReserve());
+            assertEquals(3, scheduler.tryReserve(5));
+            assertEquals(2, registry.get("payments.settlement.rejected").counter().count());
+            assertEquals(0, scheduler.tryReserve(1));
+            
+            scheduler.scheduleAll(List.of(1L, 2L, 3L));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(Set.of(1L, 2L, 3L), settled);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+    
+    @Test
+    void testBulkheadRejectionIsRetriedInsteadOfFailed() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch settled = new CountDownLatch(1);
+        PaymentSettlementScheduler scheduler = new PaymentSettlementScheduler(paymentId -> {
+            if (attempts.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(new GatewayBulkheadFullException("full"));
+            }
+            settled.countDown();
+            return CompletableFuture.completedFuture(null);
+        }, 10, 1, 4, 10, registry);
+        try {
+            assertTrue(scheduler.tryReserve());
+            scheduler.schedule(1L);
+            
+            assertTrue(settled.await(5, TimeUnit.SECONDS));
+            assertEquals(2, attempts.get());
+            assertEquals(1, registry.get("payments.settlement.deferred").counter().count());
+            assertEquals(0, registry.get("payments.settlement.failed").counter().count());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.PaymentRequestDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.PaymentSummaryDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.Payment;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.PaymentStatus;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentSummaryServiceTest {
+    
+    @Autowired
+    private PaymentSummaryService paymentSummaryService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Test
+    void testSummaryFollowsCreatesAndTransitions() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Ledger Motors", "ledger@example.com", SubscriptionType.PREMIUM));
+        PaymentResponseDTO first = paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("100.00"), PaymentMethod.CARD));
+        PaymentResponseDTO second = paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("250.50"), PaymentMethod.UPI));
+        paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("49.50"), PaymentMethod.NETBANKING));
+        
+        paymentService.updatePaymentStatus(first.getId(), PaymentStatus.SUCCESS);
+        paymentService.updatePaymentStatus(second.getId(), PaymentStatus.FAILED);
+        
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals("Ledger Motors", summary.getDealerName());
+        assertEquals(3, summary.getTotalCount());
+        assertEquals(0, new BigDecimal("400.00").compareTo(summary.getTotalAmount()));
+        assertEquals(1, summary.getSuccessCount());
+        assertEquals(1, summary.getFailedCount());
+        assertEquals(1, summary.getPendingCount());
+        
+        // Settling the last one through the gateway path
+        paymentService.settlePayment(paymentRepository.findByDealerIdAndStatus(dealer.getId(), PaymentStatus.PENDING)
+                .get(0).getId()).join();
+        PaymentSummaryDTO settled = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(0, settled.getPendingCount());
+        assertEquals(3, settled.getSuccessCount() + settled.getFailedCount());
+    }
+    
+    @Test
+    void testReconcileCorrectsDrift() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Drift Motors", "drift@example.com", SubscriptionType.BASIC));
+        paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("10.00"), PaymentMethod.CARD));
+        // Written behind the service's back, so the running totals miss it
+        paymentRepository.save(new Payment(dealer.getId(), new BigDecimal("5.00"), PaymentMethod.UPI, PaymentStatus.SUCCESS));
+        assertEquals(1, paymentSummaryService.getSummary(dealer.getId()).orElseThrow().getTotalCount());
+        
+        assertTrue(paymentSummaryService.reconcile() >= 1);
+        
+        PaymentSummaryDTO summary = paymentSummaryService.getSummary(dealer.getId()).orElseThrow();
+        assertEquals(2, summary.getTotalCount());
+        assertEquals(0, new BigDecimal("15.00").compareTo(summary.getTotalAmount()));
+        assertEquals(1, summary.getSuccessCount());
+        assertEquals(1, summary.getPendingCount());
+        assertEquals(0, paymentSummaryService.reconcile());
+    }
+    
+    @Test
+    void testUnknownDealerHasNoSummary() {
+        assertTrue(paymentSummaryService.getSummary(Long.MAX_VALUE).isEmpty());
+    }
+}
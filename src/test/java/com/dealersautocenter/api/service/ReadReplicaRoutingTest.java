@@ -0,0 +1,120 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.config.ReplicaRoutingDataSource;
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.dto.PaymentRequestDTO;
+import com.dealersautocenter.api.dto.PaymentResponseDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.entity.PaymentMethod;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the services against two H2 databases, a primary and a replica behind a {@link ReplicaRoutingDataSource},
+ * copying the primary into the replica by hand to stand in for replication.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+    
+    private static final DataSource PRIMARY = database("primary");
+    private static final DataSource REPLICA = database("replica");
+    
+    @TestConfiguration
+    static class RoutingConfig {
+        
+        @Bean(destroyMethod = "")
+        ReplicaRoutingDataSource routingDataSource() {
+            return new ReplicaRoutingDataSource(PRIMARY, List.of(REPLICA), 30000);
+        }
+        
+        @Bean
+        @Primary
+        DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+    }
+    
+    @Autowired
+    private DealerService dealerService;
+    
+    @Autowired
+    private VehicleService vehicleService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Test
+    void testReadOnlyServiceMethodsReadTheReplica() throws Exception {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Replica Motors", "replica@example.com", SubscriptionType.PREMIUM));
+        VehicleDTO vehicle = vehicleService.createVehicle(
+            new VehicleDTO(null, dealer.getId(), "Replicated Model", new BigDecimal("30000.00"), VehicleStatus.AVAILABLE));
+        PaymentResponseDTO payment = paymentService.initiatePayment(
+            new PaymentRequestDTO(dealer.getId(), new BigDecimal("150.00"), PaymentMethod.CARD));
+        replicate();
+        
+        // A write the replica has not received yet
+        new JdbcTemplate(PRIMARY).update("UPDATE vehicles SET model = 'Primary Model' WHERE id = ?", vehicle.getId());
+        
+        assertEquals("Replicated Model", vehicleService.getVehicleById(vehicle.getId()).orElseThrow().getModel());
+        assertEquals("Replicated Model", vehicleService.getAllVehicles(100, null).getItems().stream()
+                .filter(item -> item.getId().equals(vehicle.getId()))
+                .findFirst().orElseThrow().getModel());
+        assertTrue(dealerService.getAllDealers(100, null).getItems().stream()
+                .anyMatch(item -> item.getId().equals(dealer.getId())));
+        assertTrue(paymentService.getPaymentById(payment.getId()).isPresent());
+        
+        // Not a @ReplicaRead method, so still on the primary
+        assertEquals("Primary Model", vehicleService.getVehiclesByDealerId(dealer.getId()).get(0).getModel());
+    }
+    
+    @Test
+    void testWritesSeeRowsTheReplicaHasNotReceived() throws Exception {
+        replicate();
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Lagging Motors", "lagging@example.com", SubscriptionType.BASIC));
+        // The dealer existence check runs on the primary
+        VehicleDTO vehicle = vehicleService.createVehicle(
+            new VehicleDTO(null, dealer.getId(), "Fresh Model", new BigDecimal("18000.00"), VehicleStatus.AVAILABLE));
+        
+        assertTrue(vehicleService.getVehicleById(vehicle.getId()).isEmpty(), "not replicated yet");
+        
+        vehicle.setStatus(VehicleStatus.SOLD);
+        assertEquals(VehicleStatus.SOLD, vehicleService.updateVehicle(vehicle.getId(), vehicle).getStatus());
+    }
+    
+    // Copies the primary's schema and rows into the replica
+    private static void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(PRIMARY).execute("SCRIPT TO '" + script + "'");
+            JdbcTemplate replica = new JdbcTemplate(REPLICA);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+    
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:replica-routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,64 @@
+package com.dealersautocenter.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VehicleModelIndexTest {
+    
+    private VehicleModelIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new VehicleModelIndex();
+        index.put(1L, "BMW X5");
+        index.put(2L, "Mercedes C-Class");
+        index.put(3L, "BMW M3");
+        index.put(4L, "Classic BMW");
+        index.put(5L, "bmw");
+    }
+    
+    @Test
+    void testSearchMatchesLikeSemantics() {
+        assertEquals(List.of(1L, 3L, 4L), index.search("BMW", false, false, 50));
+        assertEquals(List.of(2L), index.search("C-Cl", false, false, 50));
+        assertEquals(List.of(1L, 3L), index.search("BMW ", false, false, 50));
+        assertTrue(index.search("Porsche", false, false, 50).isEmpty());
+    }
+    
+    @Test
+    void testSearchShortQueryFallsBackToScan() {
+        assertEquals(List.of(1L), index.search("X5", false, false, 50));
+        assertEquals(List.of(1L, 3L, 4L, 5L), index.search("w", true, false, 50));
+    }
+    
+    @Test
+    void testIgnoreCaseAndRanking() {
+        assertEquals(List.of(1L, 3L, 4L, 5L), index.search("bmw", true, false, 50));
+        // exact, then prefix matches, then the word-start match
+        assertEquals(List.of(5L, 3L, 1L, 4L), index.search("bmw", true, true, 50));
+        assertEquals(List.of(5L, 3L), index.search("bmw", true, true, 2));
+    }
+    
+    @Test
+    void testUpdatesAndRemovalsAreIncremental() {
+        index.put(1L, "Audi A4");
+        assertEquals(List.of(3L, 4L), index.search("BMW", false, false, 50));
+        assertEquals(List.of(1L), index.search("Audi", false, false, 50));
+        
+        index.remove(3L);
+        assertEquals(List.of(4L), index.search("BMW", false, false, 50));
+        assertEquals(4, index.size());
+    }
+    
+    @Test
+    void testLimitKeepsLowestIds() {
+        for (long id = 10; id < 110; id++) {
+            index.put(id, "Toyota Corolla");
+        }
+        List<Long> ids = index.search("Corolla", false, false, 5);
+        assertEquals(List.of(10L, 11L, 12L, 13L, 14L), ids);
+    }
+}
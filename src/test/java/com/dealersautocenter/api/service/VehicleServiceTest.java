@@ -0,0 +1,369 @@
+package com.dealersautocenter.api.service;
+
+import com.dealersautocenter.api.dto.BulkResultDTO;
+import com.dealersautocenter.api.dto.DealerDTO;
+import com.dealersautocenter.api.dto.VehicleDTO;
+import com.dealersautocenter.api.dto.VehicleQueryResultDTO;
+import com.dealersautocenter.api.entity.Dealer;
+import com.dealersautocenter.api.entity.SubscriptionType;
+import com.dealersautocenter.api.entity.Vehicle;
+import com.dealersautocenter.api.entity.VehicleStatus;
+import com.dealersautocenter.api.repository.DealerRepository;
+import com.dealersautocenter.api.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VehicleServiceTest {
+    
+    @Autowired
+    private VehicleService vehicleService;
+    
+    @Autowired
+    private DealerService dealerService;
+    
+    @Autowired
+    private DealerRepository dealerRepository;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private VehicleModelIndex vehicleModelIndex;
+    
+    @Autowired
+    private PremiumVehicleView premiumVehicleView;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void testVehicleListStatementCountIsConstant() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Statement Count Motors", "statement-count@example.com", SubscriptionType.PREMIUM));
+        
+        addVehicles(dealer.getId(), 5);
+        long smallResultStatements = countStatements(() -> vehicleService.getVehiclesByDealerId(dealer.getId()));
+        
+        addVehicles(dealer.getId(), 45);
+        long largeResultStatements = countStatements(() -> vehicleService.getVehiclesByDealerId(dealer.getId()));
+        
+        assertEquals(smallResultStatements, largeResultStatements);
+        assertEquals(1, largeResultStatements);
+        
+        List<VehicleDTO> vehicles = vehicleService.getVehiclesByDealerId(dealer.getId());
+        assertEquals(50, vehicles.size());
+        assertEquals("Statement Count Motors", vehicles.get(0).getDealerName());
+        assertEquals("statement-count@example.com", vehicles.get(0).getDealerEmail());
+        
+        long allVehiclesStatements = countStatements(() -> vehicleService.getAllVehicles(500, null));
+        assertEquals(1, allVehiclesStatements);
+    }
+    
+    @Test
+    void testExportWritesOneJsonLinePerVehicle() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        vehicleService.exportVehicles(out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(vehicleRepository.count(), lines.length);
+        
+        VehicleDTO first = objectMapper.readValue(lines[0], VehicleDTO.class);
+        assertNotNull(first.getId());
+        assertNotNull(first.getDealerName());
+    }
+    
+    @Test
+    void testPremiumViewFollowsDealerAndVehicleWrites() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Upgrade Motors", "upgrade@example.com", SubscriptionType.BASIC));
+        VehicleDTO vehicle = vehicleService.createVehicle(
+            new VehicleDTO(null, dealer.getId(), "Lotus Emira", new BigDecimal("90000.00"), VehicleStatus.AVAILABLE));
+        assertFalse(premiumVehicleIds().contains(vehicle.getId()));
+        
+        dealerService.updateDealer(dealer.getId(),
+            new DealerDTO(null, "Upgrade Motors", "upgrade@example.com", SubscriptionType.PREMIUM));
+        assertTrue(premiumVehicleIds().contains(vehicle.getId()));
+        
+        dealerService.updateDealer(dealer.getId(),
+            new DealerDTO(null, "Upgraded Motors", "upgrade@example.com", SubscriptionType.PREMIUM));
+        long statements = countStatements(vehicleService::getVehiclesByPremiumDealers);
+        assertEquals(0, statements);
+        VehicleDTO premium = vehicleService.getVehiclesByPremiumDealers().stream()
+                .filter(v -> v.getId().equals(vehicle.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Upgraded Motors", premium.getDealerName());
+        
+        vehicleService.deleteVehicle(vehicle.getId());
+        assertFalse(premiumVehicleIds().contains(vehicle.getId()));
+    }
+    
+    @Test
+    void testPremiumViewRebuildPicksUpOutsideWrites() {
+        // Written past this instance's services, as another instance would
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Remote Premium Motors", "remote-premium@example.com", SubscriptionType.PREMIUM));
+        Long vehicleId = vehicleRepository.save(
+            new Vehicle(dealer.getId(), "Remote Roadster", new BigDecimal("70000.00"), VehicleStatus.AVAILABLE)).getId();
+        assertFalse(premiumVehicleIds().contains(vehicleId));
+        
+        premiumVehicleView.rebuild();
+        assertTrue(premiumVehicleIds().contains(vehicleId));
+        
+        // Writes on this instance still apply to the rebuilt view
+        vehicleService.deleteVehicle(vehicleId);
+        assertFalse(premiumVehicleIds().contains(vehicleId));
+    }
+    
+    @Test
+    void testPremiumViewWritesDuringARebuildAreNotBlockedAndSurviveTheSwap() throws Exception {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Rebuild Race Motors", "rebuild-race@example.com", SubscriptionType.PREMIUM));
+        Long removedId = vehicleRepository.save(
+            new Vehicle(dealer.getId(), "Removed Roadster", new BigDecimal("60000.00"), VehicleStatus.AVAILABLE)).getId();
+        premiumVehicleView.rebuild();
+        
+        // Once the rebuild has read its vehicles, another thread deletes one and creates one
+        Long[] addedId = new Long[1];
+        VehicleRepository realRepository = vehicleRepository;
+        VehicleRepository racingRepository = (VehicleRepository) Proxy.newProxyInstance(
+            VehicleRepository.class.getClassLoader(), new Class<?>[]{VehicleRepository.class}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(realRepository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (method.getName().equals("findVehicleDTOsByDealerIdIn") && addedId[0] == null) {
+                    CompletableFuture.runAsync(() -> {
+                        vehicleService.deleteVehicle(removedId);
+                        addedId[0] = vehicleService.createVehicle(new VehicleDTO(null, dealer.getId(), "Added Roadster",
+                            new BigDecimal("65000.00"), VehicleStatus.AVAILABLE)).getId();
+                    }).get(10, TimeUnit.SECONDS);
+                }
+                return result;
+            });
+        ReflectionTestUtils.setField(premiumVehicleView, "vehicleRepository", racingRepository);
+        try {
+            premiumVehicleView.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(premiumVehicleView, "vehicleRepository", realRepository);
+        }
+        
+        assertFalse(premiumVehicleIds().contains(removedId));
+        assertTrue(premiumVehicleIds().contains(addedId[0]));
+    }
+    
+    @Test
+    void testQueryCombinesFiltersAndCountsFacets() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Facet Motors", "facets@example.com", SubscriptionType.BASIC));
+        for (int i = 0; i < 5; i++) {
+            vehicleRepository.save(new Vehicle(dealer.getId(), "Facet Roadster " + i,
+                new BigDecimal(20000 + i * 10000), i % 2 == 0 ? VehicleStatus.AVAILABLE : VehicleStatus.SOLD));
+        }
+        
+        long[] statements = new long[1];
+        VehicleQueryResultDTO[] holder = new VehicleQueryResultDTO[1];
+        statements[0] = countStatements(() -> holder[0] = vehicleService.queryVehicles(
+            dealer.getId(), null, new BigDecimal("30000"), null, "roadster", null, 2, null));
+        VehicleQueryResultDTO firstPage = holder[0];
+        
+        assertEquals(1, statements[0]);
+        assertEquals(4, firstPage.getTotalCount());
+        assertEquals(2L, firstPage.getStatusCounts().get(VehicleStatus.AVAILABLE));
+        assertEquals(2L, firstPage.getStatusCounts().get(VehicleStatus.SOLD));
+        assertEquals(4L, firstPage.getSubscriptionTypeCounts().get(SubscriptionType.BASIC));
+        assertEquals(2, firstPage.getItems().size());
+        assertTrue(firstPage.isHasMore());
+        assertEquals("Facet Motors", firstPage.getItems().get(0).getDealerName());
+        
+        // After a cursor the page is a keyset read, and the facets take one grouped count of their own
+        statements[0] = countStatements(() -> holder[0] = vehicleService.queryVehicles(
+            dealer.getId(), null, new BigDecimal("30000"), null, "roadster", null, 2, firstPage.getNextCursor()));
+        VehicleQueryResultDTO secondPage = holder[0];
+        assertEquals(2, statements[0]);
+        assertEquals(2, secondPage.getItems().size());
+        assertFalse(secondPage.isHasMore());
+        assertTrue(secondPage.getItems().get(0).getId() > firstPage.getItems().get(1).getId());
+        assertEquals(4, secondPage.getTotalCount());
+        assertEquals(2L, secondPage.getStatusCounts().get(VehicleStatus.AVAILABLE));
+        assertEquals(4L, secondPage.getSubscriptionTypeCounts().get(SubscriptionType.BASIC));
+        
+        // Past the last match the page is empty, but the facets still cover every match
+        String pastLast = CursorCodec.encodeId(secondPage.getItems().get(1).getId());
+        VehicleQueryResultDTO emptyPage = vehicleService.queryVehicles(
+            dealer.getId(), null, new BigDecimal("30000"), null, "roadster", null, 2, pastLast);
+        assertTrue(emptyPage.getItems().isEmpty());
+        assertEquals(4, emptyPage.getTotalCount());
+        assertEquals(2L, emptyPage.getStatusCounts().get(VehicleStatus.SOLD));
+        
+        VehicleQueryResultDTO sold = vehicleService.queryVehicles(
+            dealer.getId(), VehicleStatus.SOLD, null, null, null, SubscriptionType.BASIC, 50, null);
+        assertEquals(2, sold.getItems().size());
+        assertTrue(sold.getItems().stream().allMatch(v -> v.getStatus() == VehicleStatus.SOLD));
+        
+        assertThrows(IllegalArgumentException.class, () -> vehicleService.queryVehicles(
+            null, null, new BigDecimal("10"), new BigDecimal("5"), null, null, 50, null));
+    }
+    
+    @Test
+    void testDealerVehiclesETagTracksVehicleAndDealerChanges() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "ETag Motors", "etag-vehicles@example.com", SubscriptionType.BASIC));
+        VehicleDTO vehicle = vehicleService.createVehicle(
+            new VehicleDTO(null, dealer.getId(), "Volvo XC40", new BigDecimal("41000.00"), VehicleStatus.AVAILABLE));
+        
+        String[] eTag = new String[1];
+        long statements = countStatements(() -> eTag[0] = vehicleService.getVehiclesByDealerIdETag(dealer.getId()));
+        assertEquals(1, statements);
+        assertEquals(eTag[0], vehicleService.getVehiclesByDealerIdETag(dealer.getId()));
+        
+        vehicle.setStatus(VehicleStatus.SOLD);
+        vehicleService.updateVehicle(vehicle.getId(), vehicle);
+        String afterUpdate = vehicleService.getVehiclesByDealerIdETag(dealer.getId());
+        assertNotEquals(eTag[0], afterUpdate);
+        
+        dealerService.updateDealer(dealer.getId(),
+            new DealerDTO(null, "ETag Motors Ltd", "etag-vehicles@example.com", SubscriptionType.BASIC));
+        String afterDealerRename = vehicleService.getVehiclesByDealerIdETag(dealer.getId());
+        assertNotEquals(afterUpdate, afterDealerRename);
+        
+        // A rename that bypassed this instance's dealer cache, as one made on another instance would
+        Dealer stored = dealerRepository.findById(dealer.getId()).orElseThrow();
+        stored.setName("ETag Motors Group");
+        dealerRepository.save(stored);
+        String afterOutsideRename = vehicleService.getVehiclesByDealerIdETag(dealer.getId());
+        assertNotEquals(afterDealerRename, afterOutsideRename);
+        
+        vehicleService.deleteVehicle(vehicle.getId());
+        assertNotEquals(afterOutsideRename, vehicleService.getVehiclesByDealerIdETag(dealer.getId()));
+    }
+    
+    @Test
+    void testBulkCreateReportsBadRowsAndBatchesTheRest() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Bulk Motors", "bulk@example.com", SubscriptionType.BASIC));
+        List<VehicleDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new VehicleDTO(null, dealer.getId(), "Bulk Hatch " + i, new BigDecimal("15000.00"), VehicleStatus.AVAILABLE));
+        }
+        rows.set(3, new VehicleDTO(null, -1L, "Ghost", new BigDecimal("1.00"), VehicleStatus.AVAILABLE));
+        rows.set(7, new VehicleDTO(null, dealer.getId(), "", BigDecimal.ZERO, VehicleStatus.AVAILABLE));
+        rows.set(9, null);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkResultDTO result = vehicleService.bulkCreateVehicles(rows);
+        
+        assertEquals(117, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals("Dealer with id -1 not found", result.getItems().get(3).getError());
+        assertEquals("Model is required; Price must be greater than 0", result.getItems().get(7).getError());
+        assertEquals("Vehicle is required", result.getItems().get(9).getError());
+        assertNotNull(result.getItems().get(119).getId());
+        assertEquals(117, statistics.getEntityInsertCount());
+        // One dealer lookup, a few sequence calls and a handful of insert batches, not one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 20, "statements: " + statistics.getPrepareStatementCount());
+        
+        assertEquals(117, vehicleService.getVehiclesByDealerId(dealer.getId()).size());
+        assertTrue(vehicleService.searchVehiclesByModel("Bulk Hatch 119", false, false, 10).stream()
+                .anyMatch(v -> v.getId().equals(result.getItems().get(119).getId())));
+    }
+    
+    @Test
+    void testBulkCreateRetriesAFailedChunkRowByRow() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Retry Coupes", "retry-coupes@example.com", SubscriptionType.BASIC));
+        List<VehicleDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new VehicleDTO(null, dealer.getId(), "Retry Coupe " + i, new BigDecimal("15000.00"), VehicleStatus.AVAILABLE));
+        }
+        // Passes validation but overflows the price column, failing the chunk's insert
+        rows.set(4, new VehicleDTO(null, dealer.getId(), "Priceless", new BigDecimal("1e20"), VehicleStatus.AVAILABLE));
+        
+        BulkResultDTO result = vehicleService.bulkCreateVehicles(rows);
+        
+        assertEquals(9, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals("Could not be saved", result.getItems().get(4).getError());
+        assertEquals(9, vehicleService.getVehiclesByDealerId(dealer.getId()).size());
+    }
+    
+    @Test
+    void testSearchReturnsEveryMatchWhenNoLimitIsGiven() {
+        Dealer dealer = dealerRepository.save(
+            new Dealer("Roadster Motors", "roadster@example.com", SubscriptionType.BASIC));
+        List<VehicleDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(new VehicleDTO(null, dealer.getId(), "Unbounded Roadster " + i, new BigDecimal("21000.00"), VehicleStatus.AVAILABLE));
+        }
+        assertEquals(1200, vehicleService.bulkCreateVehicles(rows).getCreated());
+        
+        assertEquals(1200, vehicleService.searchVehiclesByModel("Unbounded Roadster", false, false, null).size());
+        assertEquals(10, vehicleService.searchVehiclesByModel("Unbounded Roadster", false, false, 10).size());
+    }
+    
+    @Test
+    void testModelIndexDropsDeletedDealersVehiclesAndPicksUpOutsideWrites() {
+        DealerDTO dealer = dealerService.createDealer(
+            new DealerDTO(null, "Orphan Motors", "orphan@example.com", SubscriptionType.BASIC));
+        for (int i = 0; i < 3; i++) {
+            vehicleService.createVehicle(new VehicleDTO(null, dealer.getId(), "Orphaned Coupe " + i,
+                    new BigDecimal("18000.00"), VehicleStatus.AVAILABLE));
+        }
+        assertEquals(3, vehicleModelIndex.search("Orphaned Coupe", false, false, 10).size());
+        
+        dealerService.deleteDealer(dealer.getId());
+        assertTrue(vehicleModelIndex.search("Orphaned Coupe", false, false, 10).isEmpty());
+        
+        // Written past this instance's service, as another instance would; seen once the index is rebuilt
+        Dealer other = dealerRepository.save(
+            new Dealer("Elsewhere Motors", "elsewhere@example.com", SubscriptionType.BASIC));
+        Long vehicleId = vehicleRepository.save(
+            new Vehicle(other.getId(), "Elsewhere Cabrio", new BigDecimal("26000.00"), VehicleStatus.AVAILABLE)).getId();
+        assertTrue(vehicleModelIndex.search("Elsewhere Cabrio", false, false, 10).isEmpty());
+        vehicleModelIndex.rebuild();
+        assertEquals(List.of(vehicleId), vehicleModelIndex.search("Elsewhere Cabrio", false, false, 10));
+    }
+    
+    private List<Long> premiumVehicleIds() {
+        return vehicleService.getVehiclesByPremiumDealers().stream().map(VehicleDTO::getId).toList();
+    }
+    
+    private void addVehicles(Long dealerId, int count) {
+        for (int i = 0; i < count; i++) {
+            vehicleRepository.save(new Vehicle(dealerId, "Model " + i, new BigDecimal("10000.00"), VehicleStatus.AVAILABLE));
+        }
+    }
+    
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}